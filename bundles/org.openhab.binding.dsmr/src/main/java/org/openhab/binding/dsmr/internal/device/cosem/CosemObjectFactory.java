@@ -92,13 +92,9 @@ public class CosemObjectFactory {
      */
     public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
         OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
-        OBISIdentifier reducedObisIdGroupE;
 
         try {
             obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-            reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
         } catch (final ParseException pe) {
             logger.debug("Received invalid OBIS identifier: {}", obisIdString);
             return null;
@@ -106,6 +102,20 @@ public class CosemObjectFactory {
 
         logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
 
+        return getCosemObject(obisId, cosemStringValues);
+    }
+
+    /**
+     * Return Cosem Object for the already parsed OBIS identifier or null if the values couldn't be parsed correctly or
+     * no corresponding Cosem Object was found
+     *
+     * @param obisId the OBIS message identifier
+     * @param cosemStringValues String containing Cosem values
+     * @return CosemObject or null if parsing failed
+     */
+    public @Nullable CosemObject getCosemObject(OBISIdentifier obisId, String cosemStringValues) {
+        OBISIdentifier reducedObisId = obisId.getReducedOBISIdentifier();
+        OBISIdentifier reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
         CosemObject cosemObject = null;
 
         if (obisLookupTableFixed.containsKey(reducedObisId)) {
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.p1telegram;
+
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
+
+/**
+ * Cache of the last received Cosem Object per OBIS identifier, used by the {@link P1TelegramParser}.
+ *
+ * The OBIS identifiers are stored by a primitive key and the raw value data is kept with the Cosem Object. If a meter
+ * sends the same value again, the parser reuses the cached Cosem Object instead of parsing the value again. Because of
+ * this, an unchanged value can be recognized by the same Cosem Object instance being received.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class CosemObjectCache {
+
+    /**
+     * A telegram contains a few dozen objects. If corrupted data results in more identifiers the cache is cleared.
+     */
+    private static final int MAX_ENTRIES = 256;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Cache entry of a single OBIS identifier.
+     */
+    static class Entry {
+        final long key;
+        final OBISIdentifier obisId;
+        private byte[] value = new byte[0];
+        private int valueLength = -1;
+        @Nullable
+        CosemObject cosemObject;
+
+        Entry(long key, OBISIdentifier obisId) {
+            this.key = key;
+            this.obisId = obisId;
+        }
+
+        /**
+         * @return true if the given raw value data equals the data the cached Cosem Object was constructed of
+         */
+        boolean valueEquals(byte[] data, int length) {
+            if (length != valueLength) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (data[i] != value[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Stores the Cosem Object with the raw value data it was constructed of.
+         */
+        void update(byte[] data, int length, @Nullable CosemObject cosemObject) {
+            if (value.length < length) {
+                value = Arrays.copyOf(data, length);
+            } else {
+                System.arraycopy(data, 0, value, 0, length);
+            }
+            valueLength = length;
+            this.cosemObject = cosemObject;
+        }
+    }
+
+    private @Nullable Entry[] entries = new Entry[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param key the OBIS key
+     * @return the entry for the given key or null if not present
+     */
+    @Nullable
+    Entry get(long key) {
+        final int mask = entries.length - 1;
+        for (int i = index(key, mask);; i = (i + 1) & mask) {
+            final Entry entry = entries[i];
+            if (entry == null || entry.key == key) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * Adds a new entry for the given key. The key must not be present.
+     *
+     * @param key the OBIS key
+     * @param obisId the OBIS identifier the key represents
+     * @return the new entry
+     */
+    Entry add(long key, OBISIdentifier obisId) {
+        if (size >= MAX_ENTRIES) {
+            clear();
+        } else if (2 * (size + 1) > entries.length) {
+            resize();
+        }
+        final Entry entry = new Entry(key, obisId);
+        insert(entries, entry);
+        size++;
+        return entry;
+    }
+
+    void clear() {
+        entries = new Entry[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        final @Nullable Entry[] newEntries = new Entry[entries.length * 2];
+        for (Entry entry : entries) {
+            if (entry != null) {
+                insert(newEntries, entry);
+            }
+        }
+        entries = newEntries;
+    }
+
+    private static void insert(@Nullable Entry[] table, Entry entry) {
+        final int mask = table.length - 1;
+        int i = index(entry.key, mask);
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = entry;
+    }
+
+    private static int index(long key, int mask) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+}
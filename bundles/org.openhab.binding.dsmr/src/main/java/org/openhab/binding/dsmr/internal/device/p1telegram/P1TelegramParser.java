@@ -15,14 +15,16 @@ package org.openhab.binding.dsmr.internal.device.p1telegram;
 import java.nio.charset.StandardCharsets;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObjectFactory;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +35,10 @@ import org.slf4j.LoggerFactory;
  *
  * Data can be parsed in chunks. If a full P1 telegram is received, listeners are notified
  *
+ * The data is parsed byte by byte into reusable buffers, the CRC is calculated while parsing and the OBIS identifier is
+ * decoded into a primitive key. Cosem Objects are cached by this key, so a value that is the same as in the previous
+ * telegram results in the same {@link CosemObject} instance, without parsing the value again.
+ *
  * @author M. Volaart - Initial contribution
  * @author Hilbrand Bouwkamp - Removed asynchronous call and some clean up
  */
@@ -60,9 +66,24 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of characters of the CRC-code
+     */
+    private static final int CRC_LENGTH = 4;
+
+    /**
+     * Maximum number of groups of an OBIS identifier (A-B:C.D.E*F)
+     */
+    private static final int OBIS_GROUPS = 6;
+
+    /**
+     * Maximum value of a group of an OBIS identifier
+     */
+    private static final int OBIS_GROUP_MAX = 255;
+
+    /**
+     * Key value if the OBIS identifier could not be decoded
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final long INVALID_OBIS_KEY = -1;
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -71,12 +92,23 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * current obisId buffer.
      */
-    private final StringBuilder obisId = new StringBuilder();
+    private byte[] obisId = new byte[32];
+    private int obisIdLength;
 
     /**
      * Current cosem object values buffer.
      */
-    private final StringBuilder obisValue = new StringBuilder();
+    private byte[] obisValue = new byte[256];
+    private int obisValueLength;
+
+    /**
+     * Groups of the current obisId decoded so far, with the character following each group.
+     */
+    private final int[] obisGroups = new int[OBIS_GROUPS];
+    private final byte[] obisSeparators = new byte[OBIS_GROUPS];
+    private int obisGroupCount;
+    private int obisGroupValue = -1;
+    private boolean obisKeyValid = true;
 
     /**
      * In lenient mode store raw data and log when a complete message is received.
@@ -86,7 +118,9 @@ public class P1TelegramParser implements TelegramParser {
     /**
      * Current crc value read.
      */
-    private final StringBuilder crcValue = new StringBuilder();
+    private int crcValue;
+    private int crcValueLength;
+    private boolean crcValueValid = true;
 
     /**
      * CRC calculation helper
@@ -113,6 +147,11 @@ public class P1TelegramParser implements TelegramParser {
      */
     private final CosemObjectFactory factory;
 
+    /**
+     * Last received Cosem Objects by OBIS key
+     */
+    private final CosemObjectCache cosemObjectCache = new CosemObjectCache();
+
     /**
      * Received Cosem Objects in the P1Telegram that is currently received
      */
@@ -175,9 +214,9 @@ public class P1TelegramParser implements TelegramParser {
                     }
                     break;
                 case CRLF:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(c)) { // NOPMD EmptyIfStmt
                         // do nothing
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(c)) {
                         setState(State.DATA_OBIS_ID);
                     } else {
                         handleUnexpectedCharacter(c);
@@ -186,9 +225,9 @@ public class P1TelegramParser implements TelegramParser {
                     }
                     break;
                 case DATA_OBIS_ID:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(c)) { // NOPMD EmptyIfStmt
                         // ignore
-                    } else if (Character.isDigit(c) || c == ':' || c == '-' || c == '.' || c == '*') { // NOPMD
+                    } else if (isDigit(c) || c == ':' || c == '-' || c == '.' || c == '*') { // NOPMD
                         // do nothing
                     } else if (c == '(') {
                         setState(State.DATA_OBIS_VALUE);
@@ -218,9 +257,9 @@ public class P1TelegramParser implements TelegramParser {
                     }
                     break;
                 case DATA_OBIS_VALUE_END:
-                    if (Character.isWhitespace(c)) { // NOPMD EmptyIfStmt
+                    if (isWhitespace(c)) { // NOPMD EmptyIfStmt
                         // ignore
-                    } else if (Character.isDigit(c)) {
+                    } else if (isDigit(c)) {
                         setState(State.DATA_OBIS_ID);
                     } else if (c == '(') {
                         setState(State.DATA_OBIS_VALUE);
@@ -242,18 +281,20 @@ public class P1TelegramParser implements TelegramParser {
                      * P1 telegram is correctly finished
                      */
                     if (c == '\r' || c == '/') {
-                        logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
+                        if (logger.isTraceEnabled()) {
+                            logger.trace("telegramState {}, crcValue to check 0x{}", telegramState,
+                                    String.format("%04X", crcValue));
+                        }
                         // Only perform CRC check if telegram is still ok
-                        if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                        if (telegramState == TelegramState.OK && crcValueLength > 0) {
+                            if (crcValueValid && crcValueLength == CRC_LENGTH) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
-                                    logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
-                                            String.format("%04X", calculatedCRC));
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("received CRC value: 0x{}, calculated CRC value: 0x{}",
+                                            String.format("%04X", crcValue), String.format("%04X", calculatedCRC));
                                 }
-                                if (crcP1Telegram != calculatedCRC) {
+                                if (crcValue != calculatedCRC) {
                                     logger.trace("CRC value does not match, p1 Telegram failed");
 
                                     telegramState = TelegramState.CRC_ERROR;
@@ -324,22 +365,22 @@ public class P1TelegramParser implements TelegramParser {
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_ID:
-                obisId.append(c);
+                appendObisId((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE:
-                obisValue.append(c);
+                appendObisValue((byte) c);
                 crc.processByte((byte) c);
                 break;
             case DATA_OBIS_VALUE_END:
-                obisValue.append(c);
+                appendObisValue((byte) c);
                 crc.processByte((byte) c);
                 break;
             case CRC_VALUE:
                 if (c == '!') {
                     crc.processByte((byte) c);
                 } else {
-                    crcValue.append(c);
+                    appendCrcValue(c);
                 }
                 // CRC data is not part of received data
                 break;
@@ -348,14 +389,146 @@ public class P1TelegramParser implements TelegramParser {
         }
     }
 
+    /**
+     * Adds a character to the OBIS identifier and decodes the groups of the identifier.
+     *
+     * @param b the character to add
+     */
+    private void appendObisId(byte b) {
+        if (obisIdLength == obisId.length) {
+            obisId = Arrays.copyOf(obisId, obisId.length * 2);
+        }
+        obisId[obisIdLength++] = b;
+
+        if (!obisKeyValid) {
+            return;
+        }
+        if (b >= '0' && b <= '9') {
+            obisGroupValue = (obisGroupValue < 0 ? 0 : obisGroupValue * 10) + (b - '0');
+            obisKeyValid = obisGroupValue <= OBIS_GROUP_MAX;
+        } else if (obisGroupValue >= 0 && obisGroupCount < OBIS_GROUPS - 1
+                && (b == ':' || b == '-' || b == '.' || b == '*')) {
+            obisGroups[obisGroupCount] = obisGroupValue;
+            obisSeparators[obisGroupCount] = b;
+            obisGroupCount++;
+            obisGroupValue = -1;
+        } else {
+            obisKeyValid = false;
+        }
+    }
+
+    /**
+     * Adds a character to the OBIS value.
+     *
+     * @param b the character to add
+     */
+    private void appendObisValue(byte b) {
+        if (obisValueLength == obisValue.length) {
+            obisValue = Arrays.copyOf(obisValue, obisValue.length * 2);
+        }
+        obisValue[obisValueLength++] = b;
+    }
+
+    /**
+     * Adds a character to the CRC value. The CRC value must consist of upper case hexadecimal characters.
+     *
+     * @param c the character to add
+     */
+    private void appendCrcValue(char c) {
+        crcValueLength++;
+        if (c >= '0' && c <= '9') {
+            crcValue = (crcValue << 4) | (c - '0');
+        } else if (c >= 'A' && c <= 'F') {
+            crcValue = (crcValue << 4) | (c - 'A' + 10);
+        } else {
+            crcValueValid = false;
+        }
+    }
+
+    /**
+     * Returns the primitive key of the current OBIS identifier. The key contains the 6 groups of the identifier in 9
+     * bits each: a bit if the group is present and the 8 bit value of the group. The identifiers are decoded the same
+     * as {@link OBISIdentifier#OBISIdentifier(String)} does, group A is 0 if not present.
+     *
+     * @return the key or {@link #INVALID_OBIS_KEY} if the identifier could not be decoded
+     */
+    private long obisKey() {
+        if (!obisKeyValid || obisGroupValue < 0) {
+            return INVALID_OBIS_KEY;
+        }
+        final int count = obisGroupCount + 1;
+        obisGroups[obisGroupCount] = obisGroupValue;
+        obisSeparators[obisGroupCount] = 0;
+
+        int i = 0;
+        int groupA = 0;
+        int groupB = -1;
+        int groupE = -1;
+        int groupF = -1;
+
+        if (obisSeparators[i] == '-') {
+            groupA = obisGroups[i++];
+        }
+        if (obisSeparators[i] == ':') {
+            groupB = obisGroups[i++];
+        }
+        if (obisSeparators[i] != '.') {
+            return INVALID_OBIS_KEY;
+        }
+        final int groupC = obisGroups[i++];
+        final int groupD = obisGroups[i];
+        final boolean groupEFollows = obisSeparators[i++] == '.';
+
+        if (i < count && groupEFollows) {
+            groupE = obisGroups[i++];
+        }
+        if (i < count) {
+            groupF = obisGroups[i++];
+        }
+        if (i != count) {
+            return INVALID_OBIS_KEY;
+        }
+        return keyGroup(groupA) << 45 | keyGroup(groupB) << 36 | keyGroup(groupC) << 27 | keyGroup(groupD) << 18
+                | keyGroup(groupE) << 9 | keyGroup(groupF);
+    }
+
+    private static long keyGroup(int value) {
+        return value < 0 ? 0 : 0x100 | value;
+    }
+
+    /**
+     * @return the {@link OBISIdentifier} the key created by {@link #obisKey()} represents
+     */
+    private static OBISIdentifier obisIdentifier(long key) {
+        return new OBISIdentifier(groupValue(key, 45), optionalGroupValue(key, 36), groupValue(key, 27),
+                groupValue(key, 18), optionalGroupValue(key, 9), optionalGroupValue(key, 0));
+    }
+
+    private static int groupValue(long key, int shift) {
+        return (int) (key >>> shift) & 0xFF;
+    }
+
+    private static @Nullable Integer optionalGroupValue(long key, int shift) {
+        return ((key >>> shift) & 0x100) == 0 ? null : groupValue(key, shift);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\r' || c == '\n' || c == '\t' || c == '\f' || c == 0x0B;
+    }
+
     /**
      * Clears all internal state
      */
     private void clearInternalData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        clearObisData();
         rawData.setLength(0);
-        crcValue.setLength(0);
+        crcValue = 0;
+        crcValueLength = 0;
+        crcValueValid = true;
         crc.initialize();
         cosemObjects.clear();
         unknownCosemObjects.clear();
@@ -367,23 +540,41 @@ public class P1TelegramParser implements TelegramParser {
      * - current OBIS value
      */
     private void clearObisData() {
-        obisId.setLength(0);
-        obisValue.setLength(0);
+        obisIdLength = 0;
+        obisValueLength = 0;
+        obisGroupCount = 0;
+        obisGroupValue = -1;
+        obisKeyValid = true;
     }
 
     /**
      * Store the current CosemObject in the list of received cosem Objects
      */
     private void storeCurrentCosemObject() {
-        String obisIdString = obisId.toString();
+        if (obisIdLength > 0) {
+            final long key = obisKey();
+            final CosemObject cosemObject;
 
-        if (!obisIdString.isEmpty()) {
-            final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+            if (key == INVALID_OBIS_KEY) {
+                cosemObject = factory.getCosemObject(toString(obisId, obisIdLength),
+                        toString(obisValue, obisValueLength));
+            } else {
+                CosemObjectCache.Entry entry = cosemObjectCache.get(key);
 
+                if (entry == null) {
+                    entry = cosemObjectCache.add(key, obisIdentifier(key));
+                }
+                // Only parse the value if it differs from the value previously received
+                if (!entry.valueEquals(obisValue, obisValueLength)) {
+                    entry.update(obisValue, obisValueLength,
+                            factory.getCosemObject(entry.obisId, toString(obisValue, obisValueLength)));
+                }
+                cosemObject = entry.cosemObject;
+            }
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(new SimpleEntry<>(toString(obisId, obisIdLength),
+                            toString(obisValue, obisValueLength)));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
@@ -393,6 +584,10 @@ public class P1TelegramParser implements TelegramParser {
         clearObisData();
     }
 
+    private static String toString(byte[] data, int length) {
+        return new String(data, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
     /**
      * @param newState the new state to set
      */
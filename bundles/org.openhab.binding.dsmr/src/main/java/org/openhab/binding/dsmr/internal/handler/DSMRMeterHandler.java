@@ -12,8 +12,10 @@
  */
 package org.openhab.binding.dsmr.internal.handler;
 
-import java.util.Collections;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -31,6 +33,7 @@ import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1TelegramListener;
 import org.openhab.binding.dsmr.internal.meter.DSMRMeter;
@@ -57,9 +60,9 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     private @NonNullByDefault({}) DSMRMeter meter;
 
     /**
-     * Last received cosem objects.
+     * Received cosem objects that changed since the last state update.
      */
-    private List<CosemObject> lastReceivedValues = Collections.emptyList();
+    private final Map<OBISIdentifier, CosemObject> changedValues = new LinkedHashMap<>();
 
     /**
      * Reference to the meter watchdog.
@@ -81,7 +84,7 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command == RefreshType.REFRESH) {
-            updateState();
+            updateState(getThing().getStatus() == ThingStatus.ONLINE);
         }
     }
 
@@ -122,14 +125,31 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
     }
 
     /**
-     * Updates the state of all channels from the last received Cosem values from the meter. The lastReceivedValues are
-     * cleared after processing here so when it does contain values the next time this method is called and it contains
-     * values those are new values.
+     * Updates the state of the channels of which the Cosem values changed since the last update. The changedValues are
+     * cleared after processing here so when it does contain values the next time this method is called those are new
+     * values.
      */
-    private synchronized void updateState() {
+    private void updateState() {
+        updateState(false);
+    }
+
+    /**
+     * Updates the state of the channels from the received Cosem values from the meter.
+     *
+     * @param all if true all channels are updated with the last received values, otherwise only the channels of which
+     *            the values changed are updated
+     */
+    private synchronized void updateState(boolean all) {
         logger.trace("Update state for device: {}", getThing().getThingTypeUID().getId());
-        if (!lastReceivedValues.isEmpty()) {
-            for (CosemObject cosemObject : lastReceivedValues) {
+        final DSMRMeter localMeter = meter;
+
+        if (localMeter == null) {
+            return;
+        }
+        final Collection<CosemObject> values = all ? localMeter.getLastMeterValues() : changedValues.values();
+
+        if (!values.isEmpty()) {
+            for (CosemObject cosemObject : values) {
                 String channel = cosemObject.getType().name().toLowerCase();
 
                 for (Entry<String, ? extends State> entry : cosemObject.getCosemValues().entrySet()) {
@@ -145,8 +165,8 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
             if (getThing().getStatus() != ThingStatus.ONLINE) {
                 updateStatus(ThingStatus.ONLINE);
             }
-            lastReceivedValues = Collections.emptyList();
         }
+        changedValues.clear();
     }
 
     /**
@@ -157,7 +177,6 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
      */
     @Override
     public void telegramReceived(P1Telegram telegram) {
-        lastReceivedValues = Collections.emptyList();
         final DSMRMeter localMeter = meter;
 
         if (localMeter == null) {
@@ -173,9 +192,13 @@ public class DSMRMeterHandler extends BaseThingHandler implements P1TelegramList
             if (logger.isTraceEnabled()) {
                 logger.trace("Received {} objects for {}", filteredValues.size(), getThing().getThingTypeUID().getId());
             }
-            lastReceivedValues = filteredValues;
+            synchronized (this) {
+                for (CosemObject cosemObject : localMeter.filterChangedMeterValues(filteredValues)) {
+                    changedValues.put(cosemObject.getObisIdentifier(), cosemObject);
+                }
+            }
             if (getThing().getStatus() != ThingStatus.ONLINE) {
-                updateState();
+                updateState(true);
             }
         }
     }
@@ -13,7 +13,10 @@
 package org.openhab.binding.dsmr.internal.meter;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -46,6 +49,12 @@ public class DSMRMeter {
      */
     private List<OBISIdentifier> supportedIdentifiers = new ArrayList<>();
 
+    /**
+     * Last received Cosem Object per OBIS Identifier. The parser passes the same Cosem Object instance if the value is
+     * the same as in the previous telegram.
+     */
+    private final Map<OBISIdentifier, CosemObject> lastValues = new ConcurrentHashMap<>();
+
     /**
      * Creates a new DSMRMeter
      *
@@ -80,6 +89,30 @@ public class DSMRMeter {
         return filteredValues;
     }
 
+    /**
+     * Returns the Cosem Objects which changed since the previous call and stores them as the last values of this meter.
+     *
+     * @param meterValues list of CosemObject this meter processes, as returned by {@link #filterMeterValues(List)}
+     * @return List of CosemObject that changed
+     */
+    public List<CosemObject> filterChangedMeterValues(List<CosemObject> meterValues) {
+        List<CosemObject> changedValues = new ArrayList<>(meterValues.size());
+
+        for (CosemObject cosemObject : meterValues) {
+            if (lastValues.put(cosemObject.getObisIdentifier(), cosemObject) != cosemObject) {
+                changedValues.add(cosemObject);
+            }
+        }
+        return changedValues;
+    }
+
+    /**
+     * @return Returns the last received Cosem Objects of this meter
+     */
+    public Collection<CosemObject> getLastMeterValues() {
+        return lastValues.values();
+    }
+
     /**
      * @return Returns the {@link DSMRMeterDescriptor} this object is configured with
      */
@@ -12,10 +12,13 @@
  */
 package org.openhab.binding.dsmr.internal.device.p1telegram;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -23,7 +26,11 @@ import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameter;
 import org.junit.runners.Parameterized.Parameters;
 import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
+import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.cosem.OBISIdentifier;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Test class for {@link P1TelegramParser}.
@@ -51,6 +58,8 @@ public class P1TelegramParserTest {
     }
     // @formatter:on
 
+    private final Logger logger = LoggerFactory.getLogger(P1TelegramParserTest.class);
+
     @Parameter(0)
     public String telegramName;
 
@@ -64,4 +73,56 @@ public class P1TelegramParserTest {
         assertEquals("Expected number of objects", numberOfCosemObjects,
                 telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum());
     }
+
+    /**
+     * Test if a telegram with the same values as the previous telegram results in the same {@link CosemObject}
+     * instances. Objects of which the identifier occurs multiple times in a telegram (i.e. history values) are not
+     * reused, because every occurrence has a different value.
+     */
+    @Test
+    public void testUnchangedValuesReuseCosemObjects() {
+        List<P1Telegram> telegrams = new ArrayList<>();
+        byte[] telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+        P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+
+        parser.parse(telegram, telegram.length);
+        List<CosemObject> first = telegrams.get(telegrams.size() - 1).getCosemObjects();
+        parser.parse(telegram, telegram.length);
+        List<CosemObject> second = telegrams.get(telegrams.size() - 1).getCosemObjects();
+
+        assertEquals("Expected same number of objects", first.size(), second.size());
+        for (int i = 0; i < first.size(); i++) {
+            final OBISIdentifier obisId = first.get(i).getObisIdentifier();
+
+            if (first.stream().filter(co -> co.getObisIdentifier().equals(obisId)).count() == 1) {
+                assertSame("Unchanged value should result in the same object", first.get(i), second.get(i));
+            }
+        }
+    }
+
+    /**
+     * Throughput benchmark in telegrams/s. Skipped unless the system property "dsmr.benchmark" is set to true.
+     */
+    @Test
+    public void benchmark() {
+        assumeTrue(Boolean.getBoolean("dsmr.benchmark"));
+
+        byte[] telegram = TelegramReaderUtil.readRawTelegram(telegramName);
+        int[] received = new int[1];
+        P1TelegramParser parser = new P1TelegramParser(t -> received[0]++);
+
+        // warm up
+        for (int i = 0; i < 10_000; i++) {
+            parser.parse(telegram, telegram.length);
+        }
+        received[0] = 0;
+        final int rounds = 50_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            parser.parse(telegram, telegram.length);
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        long telegramsPerSecond = received[0] * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        logger.info("Parsed {} {} telegrams: {} telegrams/s", received[0], telegramName, telegramsPerSecond);
+    }
 }
@@ -12,15 +12,18 @@
  */
 package org.openhab.binding.dsmr.internal.meter;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.junit.Test;
 import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
+import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram;
 import org.openhab.binding.dsmr.internal.device.p1telegram.P1Telegram.TelegramState;
+import org.openhab.binding.dsmr.internal.device.p1telegram.P1TelegramParser;
 
 /**
  * Test class for {@link DSMRMeter}.
@@ -43,4 +46,27 @@ public class DSMRMeterTest {
         assertEquals("Filter should return all required objects", DSMRMeterType.DEVICE_V5.requiredCosemObjects.length,
                 filterMeterValues.size());
     }
+
+    /**
+     * Test if method {@link DSMRMeter#filterChangedMeterValues(List)} only returns values not received before.
+     */
+    @Test
+    public void testFilterChangedMeterValues() {
+        DSMRMeterDescriptor descriptor = new DSMRMeterDescriptor(DSMRMeterType.DEVICE_V5, 0);
+        DSMRMeter meter = new DSMRMeter(descriptor);
+        List<P1Telegram> telegrams = new ArrayList<>();
+        P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+        byte[] telegram = TelegramReaderUtil.readRawTelegram("dsmr_50");
+
+        parser.parse(telegram, telegram.length);
+        parser.parse(telegram, telegram.length);
+        List<CosemObject> firstValues = meter.filterMeterValues(telegrams.get(0).getCosemObjects());
+        List<CosemObject> secondValues = meter.filterMeterValues(telegrams.get(1).getCosemObjects());
+
+        assertEquals("All values of the first telegram should be changed", firstValues.size(),
+                meter.filterChangedMeterValues(firstValues).size());
+        assertTrue("Values of the same telegram should not be changed",
+                meter.filterChangedMeterValues(secondValues).isEmpty());
+        assertEquals("Last values should contain all values", firstValues.size(), meter.getLastMeterValues().size());
+    }
 }
@@ -14,6 +14,7 @@ package org.openhab.binding.homematic.internal.communicator;
 
 import static org.openhab.binding.homematic.internal.misc.HomematicConstants.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -25,12 +26,16 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
@@ -41,6 +46,7 @@ import org.openhab.binding.homematic.internal.communicator.client.XmlRpcClient;
 import org.openhab.binding.homematic.internal.communicator.parser.ListBidcosInterfacesParser;
 import org.openhab.binding.homematic.internal.communicator.server.BinRpcServer;
 import org.openhab.binding.homematic.internal.communicator.server.RpcEventListener;
+import org.openhab.binding.homematic.internal.communicator.server.RpcEventDispatcher;
 import org.openhab.binding.homematic.internal.communicator.server.RpcServer;
 import org.openhab.binding.homematic.internal.communicator.server.XmlRpcServer;
 import org.openhab.binding.homematic.internal.communicator.virtual.BatteryTypeVirtualDatapointHandler;
@@ -90,9 +96,11 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     public static final double DEFAULT_DISABLE_DELAY = 2.0;
     private static final long CONNECTION_TRACKER_INTERVAL_SECONDS = 15;
     private static final String GATEWAY_POOL_NAME = "homematicGateway";
+    private static final String PARAMSET_CACHE_FOLDER_NAME = "homematic";
 
     private final Map<TransferMode, RpcClient<?>> rpcClients = new HashMap<>();
     private final Map<TransferMode, RpcServer> rpcServers = new HashMap<>();
+    private final RpcEventDispatcher rpcEventDispatcher = new RpcEventDispatcher(this);
 
     protected HomematicConfig config;
     protected HttpClient httpClient;
@@ -106,11 +114,12 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private final Map<String, HmDevice> devices = Collections.synchronizedMap(new HashMap<>());
     private final Map<HmInterface, TransferMode> availableInterfaces = new TreeMap<>();
     private static List<VirtualDatapointHandler> virtualDatapointHandlers = new ArrayList<>();
-    private boolean cancelLoadAllMetadata;
+    private volatile boolean cancelLoadAllMetadata;
     private boolean initialized;
     private boolean newDeviceEventsEnabled;
     private ScheduledFuture<?> enableNewDeviceFuture;
     private final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(GATEWAY_POOL_NAME);
+    private final ParamsetDescriptionCache paramsetDescriptionCache;
 
     static {
         // loads all virtual datapoints
@@ -139,6 +148,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         this.config = config;
         this.gatewayAdapter = gatewayAdapter;
         this.httpClient = httpClient;
+        this.paramsetDescriptionCache = new ParamsetDescriptionCache(
+                new File(new File(ConfigConstants.getUserDataFolder(), PARAMSET_CACHE_FOLDER_NAME),
+                        id + "-paramsets.cache"));
     }
 
     @Override
@@ -213,6 +225,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         sendDelayedExecutor.stop();
         receiveDelayedExecutor.stop();
         stopServers();
+        rpcEventDispatcher.shutdown();
         stopClients();
         devices.clear();
         echoEvents.clear();
@@ -248,8 +261,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     private synchronized void startServers() throws IOException {
         for (TransferMode mode : availableInterfaces.values()) {
             if (!rpcServers.containsKey(mode)) {
-                RpcServer rpcServer = mode == TransferMode.XML_RPC ? new XmlRpcServer(this, config)
-                        : new BinRpcServer(this, config);
+                // the events are handled in the background, ordered by device
+                RpcServer rpcServer = mode == TransferMode.XML_RPC ? new XmlRpcServer(rpcEventDispatcher, config)
+                        : new BinRpcServer(rpcEventDispatcher, config);
                 rpcServers.put(mode, rpcServer);
                 rpcServer.start();
             }
@@ -371,9 +385,49 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         // load all device descriptions
         List<HmDevice> deviceDescriptions = getDeviceDescriptions();
 
-        // loading datapoints for all channels
-        Set<String> loadedDevices = new HashSet<>();
-        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new HashMap<>();
+        // the interfaces are separate services of the gateway, load the devices of each interface in parallel
+        Map<HmInterface, List<HmDevice>> devicesByInterface = new TreeMap<>();
+        for (HmDevice device : deviceDescriptions) {
+            devicesByInterface.computeIfAbsent(device.getHmInterface(), i -> new ArrayList<>()).add(device);
+        }
+
+        Set<String> loadedDevices = ConcurrentHashMap.newKeySet();
+        Set<String> loadedChannelIds = ConcurrentHashMap.newKeySet();
+        Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<HmDevice> interfaceDevices : devicesByInterface.values()) {
+            futures.add(scheduler.submit(() -> loadDeviceMetadata(interfaceDevices, loadedDevices, loadedChannelIds,
+                    datapointsByChannelIdCache)));
+        }
+        boolean complete = true;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                cancelLoadAllMetadata = true;
+                Thread.currentThread().interrupt();
+                complete = false;
+            } catch (ExecutionException ex) {
+                logger.warn("Can't load devices from gateway '{}': {}", id, ex.getCause().getMessage(),
+                        ex.getCause());
+                complete = false;
+            }
+        }
+
+        if (!cancelLoadAllMetadata && complete) {
+            devices.keySet().retainAll(loadedDevices);
+            // remove device types which are no longer available on the gateway
+            paramsetDescriptionCache.retainAll(loadedChannelIds);
+        }
+        paramsetDescriptionCache.save();
+        initialized = true;
+    }
+
+    /**
+     * Loads the datapoints for all channels of the given devices.
+     */
+    private void loadDeviceMetadata(List<HmDevice> deviceDescriptions, Set<String> loadedDevices,
+            Set<String> loadedChannelIds, Map<String, Collection<HmDatapoint>> datapointsByChannelIdCache) {
         for (HmDevice device : deviceDescriptions) {
             if (!cancelLoadAllMetadata) {
                 try {
@@ -394,6 +448,9 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                                 String channelId = String.format("%s:%s:%s", channel.getDevice().getType(),
                                         channel.getDevice().getFirmware(), channel.getNumber());
                                 Collection<HmDatapoint> cachedDatapoints = datapointsByChannelIdCache.get(channelId);
+                                if (cachedDatapoints == null) {
+                                    cachedDatapoints = paramsetDescriptionCache.get(channelId);
+                                }
                                 if (cachedDatapoints != null) {
                                     // clone all datapoints
                                     cloneAllDatapointsIntoChannel(channel, cachedDatapoints);
@@ -406,24 +463,24 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
                                     // the data point set might change depending on the selected mode.
                                     if (!channel.isReconfigurable()) {
                                         datapointsByChannelIdCache.put(channelId, channel.getDatapoints());
+                                        paramsetDescriptionCache.put(channelId, channel.getDatapoints());
                                     }
                                 }
+                                loadedChannelIds.add(channelId);
                             }
                         }
                     }
-                    prepareDevice(device);
-                    loadedDevices.add(device.getAddress());
-                    gatewayAdapter.onDeviceLoaded(device);
+                    synchronized (gatewayAdapter) {
+                        prepareDevice(device);
+                        loadedDevices.add(device.getAddress());
+                        gatewayAdapter.onDeviceLoaded(device);
+                    }
                 } catch (IOException ex) {
                     logger.warn("Can't load device with address '{}' from gateway '{}': {}", device.getAddress(), id,
                             ex.getMessage());
                 }
             }
         }
-        if (!cancelLoadAllMetadata) {
-            devices.keySet().retainAll(loadedDevices);
-        }
-        initialized = true;
     }
 
     /**
@@ -442,7 +499,7 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
     /**
      * Loads all device descriptions from the gateway.
      */
-    private List<HmDevice> getDeviceDescriptions() throws IOException {
+    protected List<HmDevice> getDeviceDescriptions() throws IOException {
         List<HmDevice> deviceDescriptions = new ArrayList<>();
         for (HmInterface hmInterface : availableInterfaces.keySet()) {
             deviceDescriptions.addAll(getRpcClient(hmInterface).listDevices(hmInterface));
@@ -487,7 +544,40 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
             setChannelDatapointValues(channel, HmParamsetType.MASTER);
             setChannelDatapointValues(channel, HmParamsetType.VALUES);
         }
+        channelValuesLoaded(channel);
+    }
 
+    @Override
+    public void loadDeviceValues(HmDevice device) throws IOException {
+        List<HmChannel> channels = new ArrayList<>();
+        for (HmChannel channel : device.getChannels()) {
+            if (!channel.isInitialized()) {
+                channels.add(channel);
+            }
+        }
+        if (channels.isEmpty()) {
+            return;
+        }
+        if (device.isGatewayExtras()) {
+            for (HmChannel channel : channels) {
+                loadChannelValues(channel);
+            }
+        } else {
+            logger.debug("Loading values for {} channels of device '{}'", channels.size(), device.getAddress());
+            for (HmChannel channel : channels) {
+                setChannelDatapointValues(channel, HmParamsetType.MASTER);
+            }
+            setDeviceDatapointValues(device, channels);
+            for (HmChannel channel : channels) {
+                channelValuesLoaded(channel);
+            }
+        }
+    }
+
+    /**
+     * Updates the virtual datapoints of a channel after its values have been loaded and marks it as initialized.
+     */
+    private void channelValuesLoaded(HmChannel channel) {
         for (HmDatapoint dp : channel.getDatapoints()) {
             handleVirtualDatapointEvent(dp, false);
         }
@@ -522,6 +612,16 @@ public abstract class AbstractHomematicGateway implements RpcEventListener, Home
         }
     }
 
+    /**
+     * Sets all VALUES datapoint values for the given channels of a device. Gateways which are able to fetch the values
+     * of a whole device at once should override this method.
+     */
+    protected void setDeviceDatapointValues(HmDevice device, List<HmChannel> channels) throws IOException {
+        for (HmChannel channel : channels) {
+            setChannelDatapointValues(channel, HmParamsetType.VALUES);
+        }
+    }
+
     @Override
     public void loadDatapointValue(HmDatapoint dp) throws IOException {
         getRpcClient(dp.getChannel().getDevice().getHmInterface()).getDatapointValue(dp);
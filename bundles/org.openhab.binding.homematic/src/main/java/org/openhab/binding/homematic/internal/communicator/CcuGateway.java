@@ -17,7 +17,9 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang.ObjectUtils;
@@ -29,6 +31,7 @@ import org.eclipse.jetty.http.HttpHeader;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownParameterSetException;
 import org.openhab.binding.homematic.internal.communicator.client.UnknownRpcFailureException;
+import org.openhab.binding.homematic.internal.communicator.parser.CcuDeviceValueParser;
 import org.openhab.binding.homematic.internal.communicator.parser.CcuLoadDeviceNamesParser;
 import org.openhab.binding.homematic.internal.communicator.parser.CcuParamsetDescriptionParser;
 import org.openhab.binding.homematic.internal.communicator.parser.CcuValueParser;
@@ -36,6 +39,7 @@ import org.openhab.binding.homematic.internal.communicator.parser.CcuVariablesAn
 import org.openhab.binding.homematic.internal.model.HmChannel;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
 import org.openhab.binding.homematic.internal.model.HmParamsetType;
 import org.openhab.binding.homematic.internal.model.HmResult;
 import org.openhab.binding.homematic.internal.model.TclScript;
@@ -131,6 +135,52 @@ public class CcuGateway extends AbstractHomematicGateway {
         }
     }
 
+    @Override
+    protected void setDeviceDatapointValues(HmDevice device, List<HmChannel> channels) throws IOException {
+        HmInterface hmInterface = device.getHmInterface();
+        if (hmInterface != HmInterface.RF && hmInterface != HmInterface.WIRED && hmInterface != HmInterface.HMIP) {
+            super.setDeviceDatapointValues(device, channels);
+            return;
+        }
+
+        // fetch the values of all channels with one TclRega script instead of one request per channel
+        Collection<String> dpNames = new ArrayList<>();
+        for (HmChannel channel : channels) {
+            for (HmDatapoint dp : channel.getDatapoints()) {
+                if (!dp.isVirtual() && dp.isReadable() && dp.getParamsetType() == HmParamsetType.VALUES) {
+                    dpNames.add(channel.getNumber() + "." + dp.getName());
+                }
+            }
+        }
+        if (dpNames.isEmpty()) {
+            return;
+        }
+        Set<String> loadedNames;
+        try {
+            String deviceName = String.format("%s.%s:", hmInterface.getName(), device.getAddress());
+            String datapointNames = StringUtils.join(dpNames.toArray(), "\\t");
+            TclScriptDataList resultList = sendScriptByName("getAllDeviceValues", TclScriptDataList.class,
+                    new String[] { "device_name", "datapoint_names" }, new String[] { deviceName, datapointNames });
+            loadedNames = new CcuDeviceValueParser(device).parse(resultList);
+        } catch (IOException ex) {
+            logger.debug("Can't load values of device '{}' with TclRega script, loading them per channel: {}",
+                    device.getAddress(), ex.getMessage());
+            super.setDeviceDatapointValues(device, channels);
+            return;
+        }
+
+        // datapoints unknown to the CCU logic layer are loaded from the interface
+        for (HmChannel channel : channels) {
+            for (HmDatapoint dp : channel.getDatapoints()) {
+                if (!dp.isVirtual() && dp.isReadable() && dp.getParamsetType() == HmParamsetType.VALUES
+                        && !loadedNames.contains(channel.getNumber() + "." + dp.getName())) {
+                    setChannelDatapointValues(channel, HmParamsetType.VALUES);
+                    break;
+                }
+            }
+        }
+    }
+
     @Override
     protected void addChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
         try {
@@ -179,7 +229,7 @@ public class CcuGateway extends AbstractHomematicGateway {
     /**
      * Sends a TclRega script with the specified variables to the CCU.
      */
-    private <T> T sendScriptByName(String scriptName, Class<T> clazz, String[] variableNames, String[] values)
+    protected <T> T sendScriptByName(String scriptName, Class<T> clazz, String[] variableNames, String[] values)
             throws IOException {
         String script = tclregaScripts.get(scriptName);
         for (int i = 0; i < variableNames.length; i++) {
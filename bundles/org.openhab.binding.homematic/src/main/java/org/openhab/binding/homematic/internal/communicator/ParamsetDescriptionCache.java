@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.FrameworkUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for the datapoint metadata of the channels, which is loaded from the paramset descriptions of the gateway.
+ * The metadata is stored by an id of the device type, firmware and channel number and is persisted in a local file,
+ * so that only unknown device types must be loaded from the gateway after a restart.
+ *
+ * The file contains the format version and the version of the binding. If one of them does not match, the file is
+ * ignored and all metadata is loaded from the gateway again.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCache {
+    private final Logger logger = LoggerFactory.getLogger(ParamsetDescriptionCache.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_BOOLEAN = 1;
+    private static final byte VALUE_INTEGER = 2;
+    private static final byte VALUE_LONG = 3;
+    private static final byte VALUE_DOUBLE = 4;
+    private static final byte VALUE_STRING = 5;
+
+    private final File file;
+    private final String version;
+    private final Map<String, List<HmDatapoint>> datapointsByChannelId = new HashMap<>();
+    private boolean loaded;
+    private boolean modified;
+
+    public ParamsetDescriptionCache(File file) {
+        this.file = file;
+        Bundle bundle = FrameworkUtil.getBundle(ParamsetDescriptionCache.class);
+        this.version = bundle == null ? "" : bundle.getVersion().toString();
+    }
+
+    /**
+     * Returns the cached datapoints of the channel with the given id or null, if the channel is not cached. The
+     * datapoints must be cloned before they are added to a channel.
+     */
+    public synchronized Collection<HmDatapoint> get(String channelId) {
+        loadIfRequired();
+        return datapointsByChannelId.get(channelId);
+    }
+
+    /**
+     * Adds the metadata of the given datapoints to the cache, virtual datapoints are skipped.
+     */
+    public synchronized void put(String channelId, Collection<HmDatapoint> datapoints) {
+        loadIfRequired();
+        List<HmDatapoint> cachedDatapoints = new ArrayList<>(datapoints.size());
+        for (HmDatapoint dp : datapoints) {
+            if (!dp.isVirtual()) {
+                HmDatapoint cachedDp = dp.clone();
+                cachedDp.setChannel(null);
+                cachedDp.setValue(null);
+                cachedDatapoints.add(cachedDp);
+            }
+        }
+        datapointsByChannelId.put(channelId, cachedDatapoints);
+        modified = true;
+    }
+
+    /**
+     * Removes all channels from the cache, which are not in the given set of channel ids.
+     */
+    public synchronized void retainAll(Set<String> channelIds) {
+        loadIfRequired();
+        modified |= datapointsByChannelId.keySet().retainAll(channelIds);
+    }
+
+    /**
+     * Returns the number of cached channels.
+     */
+    public synchronized int size() {
+        loadIfRequired();
+        return datapointsByChannelId.size();
+    }
+
+    /**
+     * Loads the cache from the file, if not already done.
+     */
+    private void loadIfRequired() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int formatVersion = in.readInt();
+            String fileVersion = in.readUTF();
+            if (formatVersion != FORMAT_VERSION || !version.equals(fileVersion)) {
+                logger.debug("Ignoring paramset description cache {} of version {}/{}", file, formatVersion,
+                        fileVersion);
+                modified = true;
+                return;
+            }
+            while (in.readBoolean()) {
+                String channelId = in.readUTF();
+                int count = in.readInt();
+                List<HmDatapoint> datapoints = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    datapoints.add(readDatapoint(in));
+                }
+                datapointsByChannelId.put(channelId, datapoints);
+            }
+            logger.debug("Loaded metadata of {} channels from paramset description cache {} in {}ms",
+                    datapointsByChannelId.size(), file, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException ex) {
+            logger.debug("Unable to load paramset description cache {}, ignoring it: {}", file, ex.getMessage());
+            datapointsByChannelId.clear();
+            modified = true;
+        }
+    }
+
+    /**
+     * Saves the cache to the file, if it has been modified.
+     */
+    public synchronized void save() {
+        if (!modified) {
+            return;
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        File tempFile = new File(parent, file.getName() + ".tmp");
+        try {
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Can't create directory " + parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(version);
+                for (Map.Entry<String, List<HmDatapoint>> entry : datapointsByChannelId.entrySet()) {
+                    byte[] channelData = writeChannel(entry.getKey(), entry.getValue());
+                    if (channelData != null) {
+                        out.writeBoolean(true);
+                        out.write(channelData);
+                    }
+                }
+                out.writeBoolean(false);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            modified = false;
+            logger.debug("Saved metadata of {} channels to paramset description cache {}", datapointsByChannelId.size(),
+                    file);
+        } catch (IOException ex) {
+            logger.warn("Unable to save paramset description cache {}: {}", file, ex.getMessage());
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Serializes the datapoints of a channel. Returns null if a datapoint contains a value which can't be stored.
+     */
+    private byte[] writeChannel(String channelId, List<HmDatapoint> datapoints) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(channelId);
+            out.writeInt(datapoints.size());
+            for (HmDatapoint dp : datapoints) {
+                writeDatapoint(out, dp);
+            }
+        } catch (IOException ex) {
+            logger.debug("Not caching metadata of channel {}: {}", channelId, ex.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private void writeDatapoint(DataOutputStream out, HmDatapoint dp) throws IOException {
+        out.writeUTF(dp.getName());
+        writeString(out, dp.getDescription());
+        out.writeUTF(dp.getType().name());
+        writeString(out, dp.getParamsetType() == null ? null : dp.getParamsetType().name());
+        writeValue(out, dp.getMinValue());
+        writeValue(out, dp.getMaxValue());
+        writeValue(out, dp.getStep());
+        String[] options = dp.getOptions();
+        out.writeInt(options == null ? -1 : options.length);
+        if (options != null) {
+            for (String option : options) {
+                writeString(out, option);
+            }
+        }
+        out.writeBoolean(dp.isReadOnly());
+        out.writeBoolean(dp.isReadable());
+        writeString(out, dp.getInfo());
+        writeString(out, dp.getUnit());
+        out.writeBoolean(dp.isTrigger());
+        writeValue(out, dp.getDefaultValue());
+    }
+
+    private HmDatapoint readDatapoint(DataInputStream in) throws IOException {
+        HmDatapoint dp = new HmDatapoint();
+        dp.setName(in.readUTF());
+        dp.setDescription(readString(in));
+        dp.setType(HmValueType.valueOf(in.readUTF()));
+        String paramsetType = readString(in);
+        dp.setParamsetType(paramsetType == null ? null : HmParamsetType.valueOf(paramsetType));
+        dp.setMinValue((Number) readValue(in));
+        dp.setMaxValue((Number) readValue(in));
+        dp.setStep((Number) readValue(in));
+        int optionCount = in.readInt();
+        if (optionCount >= 0) {
+            String[] options = new String[optionCount];
+            for (int i = 0; i < optionCount; i++) {
+                options[i] = readString(in);
+            }
+            dp.setOptions(options);
+        }
+        dp.setReadOnly(in.readBoolean());
+        dp.setReadable(in.readBoolean());
+        dp.setInfo(readString(in));
+        dp.setUnit(readString(in));
+        dp.setTrigger(in.readBoolean());
+        dp.setDefaultValue(readValue(in));
+        return dp;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(VALUE_NULL);
+        } else if (value instanceof Boolean) {
+            out.writeByte(VALUE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(VALUE_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(VALUE_LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(VALUE_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            out.writeByte(VALUE_STRING);
+            out.writeUTF((String) value);
+        } else {
+            throw new IOException("Unsupported value type " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_BOOLEAN:
+                return in.readBoolean();
+            case VALUE_INTEGER:
+                return in.readInt();
+            case VALUE_LONG:
+                return in.readLong();
+            case VALUE_DOUBLE:
+                return in.readDouble();
+            case VALUE_STRING:
+                return in.readUTF();
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+}
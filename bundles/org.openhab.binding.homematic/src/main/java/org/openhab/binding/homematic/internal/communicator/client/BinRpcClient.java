@@ -56,18 +56,24 @@ public class BinRpcClient extends RpcClient<byte[]> {
     @Override
     public void init(HmInterface hmInterface, String clientId) throws IOException {
         super.init(hmInterface, clientId);
-        socketHandler.removeSocket(config.getRpcPort(hmInterface));
+        int port = config.getRpcPort(hmInterface);
+        synchronized (getPortLock(port)) {
+            socketHandler.removeSocket(port);
+        }
     }
 
     /**
      * Sends a BIN-RPC message and parses the response to see if there was an error.
      */
     @Override
-    protected synchronized Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
+    protected Object[] sendMessage(int port, RpcRequest<byte[]> request) throws IOException {
         if (logger.isTraceEnabled()) {
             logger.trace("Client BinRpcRequest:\n{}", request);
         }
-        return sendMessage(port, request, 0);
+        // the socket of a port is used by one message at a time
+        synchronized (getPortLock(port)) {
+            return sendMessage(port, request, 0);
+        }
     }
 
     /**
@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.homematic.internal.HomematicBindingConstants;
@@ -54,6 +55,7 @@ public abstract class RpcClient<T> {
     protected static final int MAX_RPC_RETRY = 1;
 
     protected HomematicConfig config;
+    private final Map<Integer, Object> portLocks = new ConcurrentHashMap<>();
 
     public RpcClient(HomematicConfig config) {
         this.config = config;
@@ -79,6 +81,14 @@ public abstract class RpcClient<T> {
      */
     protected abstract Object[] sendMessage(int port, RpcRequest<T> request) throws IOException;
 
+    /**
+     * Returns the lock for sending messages to the given port. Each interface of the gateway is a separate service
+     * with its own port, so messages to different interfaces can be sent in parallel.
+     */
+    protected Object getPortLock(int port) {
+        return portLocks.computeIfAbsent(port, p -> new Object());
+    }
+
     /**
      * Register a callback for the specified interface where the Homematic gateway can send its events.
      */
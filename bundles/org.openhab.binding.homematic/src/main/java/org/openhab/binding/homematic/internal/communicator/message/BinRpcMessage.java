@@ -19,8 +19,9 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.text.ParseException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -29,7 +30,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,19 +41,23 @@ import org.slf4j.LoggerFactory;
 public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     private final Logger logger = LoggerFactory.getLogger(BinRpcMessage.class);
 
+    private static final int HEADER_LENGTH = 8;
+    /** Larger messages are rejected instead of allocating a buffer for them */
+    public static final int MAX_MESSAGE_LENGTH = 32 * 1024 * 1024;
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+
     public enum TYPE {
         REQUEST,
         RESPONSE
     }
 
     private Object[] messageData;
-    private byte binRpcData[];
-    private int offset;
+    private ByteBuffer binRpcData;
 
     private String methodName;
     private TYPE type;
     private int args;
-    private String encoding;
+    private Charset charset;
 
     public BinRpcMessage(String methodName, String encoding) {
         this(methodName, TYPE.REQUEST, encoding);
@@ -65,7 +69,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     public BinRpcMessage(String methodName, TYPE type, String encoding) {
         this.methodName = methodName;
         this.type = type;
-        this.encoding = encoding;
+        setEncoding(encoding);
         createHeader();
     }
 
@@ -73,8 +77,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given InputStream.
      */
     public BinRpcMessage(InputStream is, boolean methodHeader, String encoding) throws IOException {
-        this.encoding = encoding;
-        byte sig[] = new byte[8];
+        setEncoding(encoding);
+        byte sig[] = new byte[HEADER_LENGTH];
         int length = is.read(sig, 0, 4);
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading signature");
@@ -84,20 +88,40 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
         if (length != 4) {
             throw new EOFException("Only " + length + " bytes received reading message length");
         }
-        int datasize = (new BigInteger(ArrayUtils.subarray(sig, 4, 8))).intValue();
-        byte payload[] = new byte[datasize];
-        int offset = 0;
+        int datasize = ByteBuffer.wrap(sig).getInt(4);
+        if (datasize < 0 || datasize > MAX_MESSAGE_LENGTH - HEADER_LENGTH) {
+            throw new IOException("Invalid message length " + datasize);
+        }
+        int messageLength = HEADER_LENGTH + datasize;
+        byte message[] = new byte[messageLength];
+        System.arraycopy(sig, 0, message, 0, HEADER_LENGTH);
+        int offset = HEADER_LENGTH;
         int currentLength;
 
-        while (offset < datasize && (currentLength = is.read(payload, offset, datasize - offset)) != -1) {
+        while (offset < messageLength && (currentLength = is.read(message, offset, messageLength - offset)) != -1) {
             offset += currentLength;
         }
-        if (offset != datasize) {
-            throw new EOFException("Only " + offset + " bytes received while reading message payload, expected "
-                    + datasize + " bytes");
+        if (offset != messageLength) {
+            throw new EOFException("Only " + (offset - HEADER_LENGTH)
+                    + " bytes received while reading message payload, expected " + datasize + " bytes");
         }
-        byte[] message = ArrayUtils.addAll(sig, payload);
-        decodeMessage(message, methodHeader);
+        decodeMessage(ByteBuffer.wrap(message, 0, messageLength), methodHeader);
+    }
+
+    /**
+     * Decodes a BIN-RPC message from the remaining bytes of the given buffer. The message references the buffer, so
+     * it must not be used anymore after the buffer has been modified.
+     */
+    public BinRpcMessage(ByteBuffer message, boolean methodHeader, String encoding) throws IOException {
+        setEncoding(encoding);
+        if (message.remaining() < HEADER_LENGTH) {
+            throw new EOFException("Only " + message.remaining() + " bytes received");
+        }
+        ByteBuffer data = message.slice();
+        if (data.get(0) != 'B' || data.get(1) != 'i' || data.get(2) != 'n') {
+            throw new UnsupportedEncodingException("No BinX signature");
+        }
+        decodeMessage(data, methodHeader);
     }
 
     private void validateBinXSignature(byte[] sig) throws UnsupportedEncodingException {
@@ -110,42 +134,61 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
      * Decodes a BIN-RPC message from the given byte array.
      */
     public BinRpcMessage(byte[] message, boolean methodHeader, String encoding) throws IOException, ParseException {
-        this.encoding = encoding;
-        if (message.length < 8) {
+        setEncoding(encoding);
+        if (message.length < HEADER_LENGTH) {
             throw new EOFException("Only " + message.length + " bytes received");
         }
         validateBinXSignature(message);
-        decodeMessage(message, methodHeader);
+        decodeMessage(ByteBuffer.wrap(message), methodHeader);
     }
 
-    private void decodeMessage(byte[] message, boolean methodHeader) throws IOException {
-        binRpcData = message;
+    private void setEncoding(String encoding) {
+        try {
+            this.charset = Charset.forName(encoding);
+        } catch (IllegalArgumentException ex) {
+            this.charset = Charset.defaultCharset();
+        }
+    }
 
-        offset = 8;
+    /**
+     * Decodes the message in the buffer, the position of the buffer marks the end of the message afterwards.
+     */
+    private void decodeMessage(ByteBuffer message, boolean methodHeader) throws IOException {
+        binRpcData = message;
 
         if (methodHeader) {
-            methodName = readString();
-            readInt();
+            message.position(HEADER_LENGTH);
+            methodName = readString(message);
         }
+        message.position(message.limit());
         generateResponseData();
     }
 
     public void setType(TYPE type) {
-        binRpcData[3] = type == TYPE.RESPONSE ? (byte) 1 : (byte) 0;
+        binRpcData.put(3, type == TYPE.RESPONSE ? (byte) 1 : (byte) 0);
     }
 
     private void generateResponseData() throws IOException {
-        offset = 8 + (methodName != null ? methodName.length() + 8 : 0);
-        List<Object> values = new ArrayList<>();
-        while (offset < binRpcData.length) {
-            values.add(readRpcValue());
+        ByteBuffer data = binRpcData.duplicate();
+        data.limit(data.position());
+        data.position(HEADER_LENGTH + (methodName != null ? methodName.length() + 8 : 0));
+        if (!data.hasRemaining()) {
+            messageData = EMPTY_ARRAY;
+            return;
         }
-        messageData = values.toArray();
-        values.clear();
+        Object[] values = new Object[4];
+        int count = 0;
+        while (data.hasRemaining()) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = readRpcValue(data);
+        }
+        messageData = count == values.length ? values : Arrays.copyOf(values, count);
     }
 
     private void createHeader() {
-        binRpcData = new byte[256];
+        binRpcData = ByteBuffer.allocate(256);
         addString("Bin ");
         setType(type);
         addInt(0); // placeholder content length
@@ -154,7 +197,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
             addString(methodName);
             addInt(0); // placeholder arguments
         }
-        setInt(4, offset - 8);
+        setInt(4, binRpcData.position() - HEADER_LENGTH);
     }
 
     /**
@@ -163,7 +206,7 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public void addArg(Object argument) {
         addObject(argument);
-        setInt(4, offset - 8);
+        setInt(4, binRpcData.position() - HEADER_LENGTH);
 
         if (methodName != null) {
             setInt(12 + methodName.length(), ++args);
@@ -181,14 +224,8 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
 
     @Override
     public byte[] createMessage() {
-        trimBinRpcData();
-        return binRpcData;
-    }
-
-    private void trimBinRpcData() {
-        byte[] trimmed = new byte[offset];
-        System.arraycopy(binRpcData, 0, trimmed, 0, offset);
-        binRpcData = trimmed;
+        int offset = binRpcData.arrayOffset();
+        return Arrays.copyOfRange(binRpcData.array(), offset, offset + binRpcData.position());
     }
 
     @Override
@@ -197,82 +234,111 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     // read rpc values
-    private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(binRpcData, offset, bi, 0, 4);
-        offset += 4;
-        return (new BigInteger(bi)).intValue();
-    }
-
-    private String readString() throws UnsupportedEncodingException {
-        int len = readInt();
-        offset += len;
-        return new String(binRpcData, offset - len, len, encoding);
+    private String readString(ByteBuffer data) {
+        int len = data.getInt();
+        int position = data.position();
+        data.position(position + len);
+        return new String(data.array(), data.arrayOffset() + position, len, charset);
     }
 
-    private Object readRpcValue() throws IOException {
-        int type = readInt();
+    private Object readRpcValue(ByteBuffer data) throws IOException {
+        int type = data.getInt();
         switch (type) {
             case 1:
-                return new Integer(readInt());
+                return Integer.valueOf(data.getInt());
             case 2:
-                return binRpcData[offset++] != 0 ? Boolean.TRUE : Boolean.FALSE;
+                return data.get() != 0 ? Boolean.TRUE : Boolean.FALSE;
             case 3:
-                return readString();
+                return readString(data);
             case 4:
-                int mantissa = readInt();
-                int exponent = readInt();
-                BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
-                return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+                int mantissa = data.getInt();
+                int exponent = data.getInt();
+                return decodeDouble(mantissa, exponent);
             case 5:
-                return new Date(readInt() * 1000);
+                return new Date(data.getInt() * 1000);
             case 0x100:
                 // Array
-                int numElements = readInt();
-                Collection<Object> array = new ArrayList<>();
-                while (numElements-- > 0) {
-                    array.add(readRpcValue());
+                int numElements = data.getInt();
+                if (numElements > data.remaining() / 4) {
+                    throw new IOException("Invalid array length " + numElements);
+                }
+                Object[] array = new Object[Math.max(0, numElements)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = readRpcValue(data);
                 }
-                return array.toArray();
+                return array;
             case 0x101:
                 // Struct
-                numElements = readInt();
+                numElements = data.getInt();
                 Map<String, Object> struct = new TreeMap<>();
                 while (numElements-- > 0) {
-                    String name = readString();
-                    struct.put(name, readRpcValue());
+                    String name = readString(data);
+                    struct.put(name, readRpcValue(data));
                 }
                 return struct;
 
             default:
-                for (int i = 0; i < binRpcData.length; i++) {
-                    logger.info("{} {}", Integer.toHexString(binRpcData[i]), (char) binRpcData[i]);
+                byte[] message = data.array();
+                for (int i = data.arrayOffset(); i < data.arrayOffset() + data.limit(); i++) {
+                    logger.info("{} {}", Integer.toHexString(message[i]), (char) message[i]);
                 }
                 throw new IOException("Unknown data type " + type);
         }
     }
 
+    /**
+     * Decodes the value mantissa / 2^30 * 2^exponent, rounded half down to six decimal places. The rounding is done
+     * with integer arithmetic on the exact value, which gives the same result as rounding a {@link BigDecimal}.
+     */
+    static double decodeDouble(int mantissa, int exponent) {
+        int shift = 30 - exponent;
+        if (shift <= 0) {
+            // an integer, nothing to round
+            return Math.scalb((double) mantissa, -shift);
+        }
+        long scaled = Math.abs((long) mantissa) * 1000000L;
+        long rounded;
+        if (shift >= 63) {
+            rounded = 0;
+        } else {
+            rounded = scaled >>> shift;
+            long remainder = scaled - (rounded << shift);
+            long half = 1L << (shift - 1);
+            if (remainder > half) {
+                rounded++;
+            }
+        }
+        if (rounded == 0) {
+            return 0.0;
+        }
+        return (mantissa < 0 ? -rounded : rounded) / 1000000.0;
+    }
+
     private void setInt(int position, int value) {
-        int temp = offset;
-        offset = position;
-        addInt(value);
-        offset = temp;
+        binRpcData.putInt(position, value);
     }
 
-    private void addByte(byte b) {
-        if (offset == binRpcData.length) {
-            byte newdata[] = new byte[binRpcData.length * 2];
-            System.arraycopy(binRpcData, 0, newdata, 0, binRpcData.length);
-            binRpcData = newdata;
+    /**
+     * Makes sure that the given number of bytes can be added to the message.
+     */
+    private void ensureCapacity(int length) {
+        if (binRpcData.remaining() < length) {
+            ByteBuffer newData = ByteBuffer
+                    .allocate(Math.max(binRpcData.capacity() * 2, binRpcData.position() + length));
+            binRpcData.flip();
+            newData.put(binRpcData);
+            binRpcData = newData;
         }
-        binRpcData[offset++] = b;
+    }
+
+    private void addByte(byte b) {
+        ensureCapacity(1);
+        binRpcData.put(b);
     }
 
     private void addInt(int value) {
-        addByte((byte) (value >> 24));
-        addByte((byte) (value >> 16));
-        addByte((byte) (value >> 8));
-        addByte((byte) (value));
+        ensureCapacity(4);
+        binRpcData.putInt(value);
     }
 
     private void addDouble(double value) {
@@ -298,15 +364,9 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     }
 
     private void addString(String string) {
-        byte sd[];
-        try {
-            sd = string.getBytes(encoding);
-        } catch (UnsupportedEncodingException use) {
-            sd = string.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
-        }
+        byte sd[] = string.getBytes(charset);
+        ensureCapacity(sd.length);
+        binRpcData.put(sd);
     }
 
     private void addList(Collection<?> collection) {
@@ -370,7 +430,6 @@ public class BinRpcMessage implements RpcRequest<byte[]>, RpcResponse {
     @Override
     public String toString() {
         try {
-            trimBinRpcData();
             generateResponseData();
             return RpcUtils.dumpRpcMessage(methodName, messageData);
         } catch (Exception e) {
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.parser;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.TclScriptDataEntry;
+import org.openhab.binding.homematic.internal.model.TclScriptDataList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses a TclRega script result containing datapoint values for all channels of a device. The entries are named
+ * CHANNEL_NUMBER.DATAPOINT_NAME, the names of all datapoints which have been set are returned.
+ *
+ * @author agent - Initial contribution
+ */
+public class CcuDeviceValueParser extends CommonRpcParser<TclScriptDataList, Set<String>> {
+    private final Logger logger = LoggerFactory.getLogger(CcuDeviceValueParser.class);
+
+    private HmDevice device;
+
+    public CcuDeviceValueParser(HmDevice device) {
+        this.device = device;
+    }
+
+    @Override
+    public Set<String> parse(TclScriptDataList resultList) throws IOException {
+        Set<String> loadedNames = new HashSet<>();
+        if (resultList.getEntries() != null) {
+            for (TclScriptDataEntry entry : resultList.getEntries()) {
+                int separator = entry.name == null ? -1 : entry.name.indexOf('.');
+                HmChannel channel = null;
+                if (separator > 0) {
+                    try {
+                        channel = device.getChannel(Integer.parseInt(entry.name.substring(0, separator)));
+                    } catch (NumberFormatException ex) {
+                        // handled below
+                    }
+                }
+                if (channel == null) {
+                    logger.warn("Can't set value for unknown channel of datapoint '{}' of device '{}'", entry.name,
+                            device.getAddress());
+                    continue;
+                }
+                HmDatapointInfo dpInfo = HmDatapointInfo.createValuesInfo(channel, entry.name.substring(separator + 1));
+                HmDatapoint dp = channel.getDatapoint(dpInfo);
+                if (dp != null) {
+                    dp.setValue(convertToType(dp, entry.value));
+                    adjustRssiValue(dp);
+                    loadedNames.add(entry.name);
+                } else {
+                    // should never happen, but in case ...
+                    logger.warn("Can't set value for datapoint '{}'", dpInfo);
+                }
+            }
+        }
+        return loadedNames;
+    }
+}
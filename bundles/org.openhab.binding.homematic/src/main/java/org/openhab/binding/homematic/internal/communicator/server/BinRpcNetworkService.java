@@ -12,30 +12,46 @@
  */
 package org.openhab.binding.homematic.internal.communicator.server;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
 
-import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
 import org.openhab.binding.homematic.internal.communicator.message.RpcRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Waits for a message from the Homematic gateway and starts the RpcCallbackHandler to handle the message.
+ * Waits for messages from the Homematic gateway and handles the method calls.
+ *
+ * All connections are handled by a single thread with a selector. The listener must return immediately, e.g. by
+ * using a {@link RpcEventDispatcher}, because the messages of all connections are handled by this thread. The
+ * connections are kept alive until the gateway closes them or the max alive time of the socket is reached.
  *
  * @author Gerhard Riegler - Initial contribution
  */
 public class BinRpcNetworkService implements Runnable {
+    private final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
+
     private static final byte BIN_EMPTY_STRING[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 0, 3, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_ARRAY[] = { 'B', 'i', 'n', 1, 0, 0, 0, 8, 0, 0, 1, 0, 0, 0, 0, 0 };
     private static final byte BIN_EMPTY_EVENT_LIST[] = { 'B', 'i', 'n', 1, 0, 0, 0, 21, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0,
             3, 0, 0, 0, 5, 'e', 'v', 'e', 'n', 't' };
 
-    private static final String RPC_POOL_NAME = "homematicRpc";
-    private ServerSocket serverSocket;
-    private boolean accept = true;
+    private static final int HEADER_LENGTH = 8;
+    private static final int BUFFER_SIZE = 8192;
+
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private volatile boolean accept = true;
     private HomematicConfig config;
     private RpcResponseHandler<byte[]> rpcResponseHandler;
 
@@ -45,9 +61,18 @@ public class BinRpcNetworkService implements Runnable {
     public BinRpcNetworkService(RpcEventListener listener, HomematicConfig config) throws IOException {
         this.config = config;
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+        selector = Selector.open();
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.bind(new InetSocketAddress(config.getBindAddress(), config.getBinCallbackPort()));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            shutdown();
+            closeConnections();
+            throw ex;
+        }
 
         this.rpcResponseHandler = new RpcResponseHandler<byte[]>(listener) {
 
@@ -74,31 +99,202 @@ public class BinRpcNetworkService implements Runnable {
     }
 
     /**
-     * Listening for events and starts the callbackHandler if a event received.
+     * Returns the port the service is listening on.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Listening for events and handles the messages of all connections.
      */
     @Override
     public void run() {
-        while (accept) {
-            try {
-                Socket cs = serverSocket.accept();
-                BinRpcResponseHandler rpcHandler = new BinRpcResponseHandler(cs, rpcResponseHandler, config);
-                ThreadPoolManager.getPool(RPC_POOL_NAME).execute(rpcHandler);
-            } catch (IOException ex) {
-                // ignore
+        try {
+            while (accept) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        acceptConnection();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isWritable()) {
+                                connection.write();
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read();
+                            }
+                        } catch (EOFException eof) {
+                            connection.close();
+                        } catch (Exception ex) {
+                            logger.warn("{}", ex.getMessage(), ex);
+                            connection.close();
+                        }
+                    }
+                }
             }
+        } catch (IOException | ClosedSelectorException ex) {
+            if (accept) {
+                logger.warn("BIN-RPC server stopped: {}", ex.getMessage(), ex);
+            }
+        } finally {
+            closeConnections();
+        }
+    }
+
+    private void acceptConnection() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel != null) {
+                channel.configureBlocking(false);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+        } catch (IOException ex) {
+            logger.debug("Can't accept connection from gateway: {}", ex.getMessage());
         }
     }
 
     /**
-     * Stops the listening.
+     * Stops the listening, the open connections are closed by the thread of the service.
      */
     public void shutdown() {
         accept = false;
         try {
-            serverSocket.close();
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException ioe) {
+            // ignore
+        }
+        selector.wakeup();
+    }
+
+    private void closeConnections() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            // ignore
+        }
+        try {
+            selector.close();
         } catch (IOException ioe) {
             // ignore
         }
     }
 
+    /**
+     * A keep alive connection from the gateway. The gateway sends the next message after it received the response to
+     * the previous one.
+     */
+    private class Connection {
+        private final SocketChannel channel;
+        private final long created = System.currentTimeMillis();
+        private SelectionKey key;
+        private ByteBuffer readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private ByteBuffer writeBuffer;
+
+        public Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads the available data and handles all complete messages.
+         */
+        public void read() throws IOException {
+            if (channel.read(readBuffer) == -1) {
+                throw new EOFException();
+            }
+            handleMessages();
+        }
+
+        /**
+         * Sends the rest of the pending response and handles the messages received in the meantime.
+         */
+        public void write() throws IOException {
+            if (flush()) {
+                handleMessages();
+            }
+        }
+
+        private void handleMessages() throws IOException {
+            readBuffer.flip();
+            while (writeBuffer == null && readBuffer.remaining() >= HEADER_LENGTH) {
+                int datasize = readBuffer.getInt(readBuffer.position() + 4);
+                if (datasize < 0 || datasize > BinRpcMessage.MAX_MESSAGE_LENGTH - HEADER_LENGTH) {
+                    throw new IOException("Invalid message length " + datasize);
+                }
+                int messageLength = HEADER_LENGTH + datasize;
+                if (readBuffer.remaining() < messageLength) {
+                    if (readBuffer.capacity() < messageLength) {
+                        ByteBuffer newBuffer = ByteBuffer.allocate(messageLength);
+                        newBuffer.put(readBuffer);
+                        newBuffer.flip();
+                        readBuffer = newBuffer;
+                    }
+                    break;
+                }
+                ByteBuffer messageData = readBuffer.duplicate();
+                messageData.limit(readBuffer.position() + messageLength);
+                readBuffer.position(readBuffer.position() + messageLength);
+                handleMessage(new BinRpcMessage(messageData, true, config.getEncoding()));
+            }
+            readBuffer.compact();
+            if (writeBuffer == null && readBuffer.position() == 0 && readBuffer.capacity() > BUFFER_SIZE) {
+                // release the buffer of a large message
+                readBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+            }
+        }
+
+        private void handleMessage(BinRpcMessage message) throws IOException {
+            logger.trace("Event BinRpcMessage: {}", message);
+            byte[] returnValue = rpcResponseHandler.handleMethodCall(message.getMethodName(),
+                    message.getResponseData());
+            if (returnValue != null) {
+                writeBuffer = ByteBuffer.wrap(returnValue);
+                flush();
+            } else {
+                checkMaxAlive();
+            }
+        }
+
+        /**
+         * Writes the pending response, further messages are not handled until the response has been sent.
+         */
+        private boolean flush() throws IOException {
+            channel.write(writeBuffer);
+            if (writeBuffer.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return false;
+            }
+            writeBuffer = null;
+            key.interestOps(SelectionKey.OP_READ);
+            checkMaxAlive();
+            return true;
+        }
+
+        private void checkMaxAlive() throws EOFException {
+            if (System.currentTimeMillis() - created > config.getSocketMaxAlive() * 1000) {
+                throw new EOFException();
+            }
+        }
+
+        public void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ioe) {
+                // ignore
+            }
+        }
+    }
 }
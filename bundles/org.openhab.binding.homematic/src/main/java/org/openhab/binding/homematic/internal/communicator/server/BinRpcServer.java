@@ -25,6 +25,7 @@ import org.slf4j.LoggerFactory;
  */
 public class BinRpcServer implements RpcServer {
     private final Logger logger = LoggerFactory.getLogger(BinRpcServer.class);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
 
     private Thread networkServiceThread;
     private BinRpcNetworkService networkService;
@@ -50,15 +51,19 @@ public class BinRpcServer implements RpcServer {
     public void shutdown() {
         if (networkService != null) {
             logger.debug("Stopping BIN-RPC server");
+            // wakes up the thread of the service, which closes the connections
+            networkService.shutdown();
+            networkService = null;
+            // the listening socket is released as soon as the thread has closed the selector
             try {
-                if (networkServiceThread != null) {
-                    networkServiceThread.interrupt();
+                networkServiceThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+                if (networkServiceThread.isAlive()) {
+                    logger.warn("BIN-RPC server did not stop within {} ms", SHUTDOWN_TIMEOUT_MILLIS);
                 }
-            } catch (Exception e) {
-                logger.error("{}", e.getMessage(), e);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
             }
-            networkService.shutdown();
-            networkService = null;
+            networkServiceThread = null;
         }
     }
 }
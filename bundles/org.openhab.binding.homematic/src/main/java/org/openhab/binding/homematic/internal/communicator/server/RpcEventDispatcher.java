@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.lang.StringUtils;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Passes the calls of the Homematic gateway to the listener in the background, so that the RPC servers can answer
+ * the gateway immediately. The calls for a device are executed in the order they have been received, calls for
+ * different devices are executed in parallel.
+ *
+ * @author agent - Initial contribution
+ */
+public class RpcEventDispatcher implements RpcEventListener {
+    private final Logger logger = LoggerFactory.getLogger(RpcEventDispatcher.class);
+    private static final String RPC_POOL_NAME = "homematicRpc";
+
+    private final RpcEventListener listener;
+    private final Executor executor;
+    private final Map<String, Queue<Runnable>> queuesByDevice = new HashMap<>();
+
+    public RpcEventDispatcher(RpcEventListener listener) {
+        this(listener, ThreadPoolManager.getPool(RPC_POOL_NAME));
+    }
+
+    public RpcEventDispatcher(RpcEventListener listener, Executor executor) {
+        this.listener = listener;
+        this.executor = executor;
+    }
+
+    @Override
+    public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+        dispatch(dpInfo.getAddress(), () -> listener.eventReceived(dpInfo, newValue));
+    }
+
+    @Override
+    public void newDevices(List<String> adresses) {
+        for (String address : adresses) {
+            dispatch(address, () -> listener.newDevices(Collections.singletonList(address)));
+        }
+    }
+
+    @Override
+    public void deleteDevices(List<String> addresses) {
+        for (String address : addresses) {
+            dispatch(address, () -> listener.deleteDevices(Collections.singletonList(address)));
+        }
+    }
+
+    /**
+     * Adds the call to the queue of the device. If the queue is new, a worker is started, which executes the calls
+     * until the queue is empty.
+     */
+    private void dispatch(String address, Runnable call) {
+        String deviceAddress = StringUtils.substringBefore(address, ":");
+        Queue<Runnable> queue;
+        boolean startWorker;
+        synchronized (queuesByDevice) {
+            queue = queuesByDevice.get(deviceAddress);
+            startWorker = queue == null;
+            if (startWorker) {
+                queue = new ArrayDeque<>();
+                queuesByDevice.put(deviceAddress, queue);
+            }
+            queue.add(call);
+        }
+        if (startWorker) {
+            Queue<Runnable> workerQueue = queue;
+            try {
+                executor.execute(() -> executeQueue(deviceAddress, workerQueue));
+            } catch (RejectedExecutionException ex) {
+                // other calls might have been queued in the meantime, execute them in order on this thread
+                logger.debug("Handling calls from gateway for device '{}' directly: {}", deviceAddress,
+                        ex.getMessage());
+                executeQueue(deviceAddress, workerQueue);
+            }
+        }
+    }
+
+    /**
+     * Discards all queued calls which have not been started yet, they are not passed to the listener. A call which is
+     * running is completed, but the worker stops afterwards. Calls received after the shutdown are dispatched again.
+     */
+    public void shutdown() {
+        synchronized (queuesByDevice) {
+            for (Queue<Runnable> queue : queuesByDevice.values()) {
+                queue.clear();
+            }
+            queuesByDevice.clear();
+        }
+    }
+
+    /**
+     * Executes the calls of a device, the queue is removed as soon as it is empty.
+     */
+    private void executeQueue(String deviceAddress, Queue<Runnable> queue) {
+        while (true) {
+            Runnable call;
+            synchronized (queuesByDevice) {
+                call = queue.poll();
+                if (call == null) {
+                    // the queue has already been removed if the dispatcher has been shut down
+                    queuesByDevice.remove(deviceAddress, queue);
+                    return;
+                }
+            }
+            try {
+                call.run();
+            } catch (RuntimeException ex) {
+                logger.warn("Error handling call from gateway for device '{}': {}", deviceAddress, ex.getMessage(),
+                        ex);
+            }
+        }
+    }
+}
@@ -112,6 +112,7 @@ public class HomematicThingHandler extends BaseThingHandler {
         loadHomematicChannelValues(channelZero);
         updateStatus(device);
         logger.debug("Initializing thing '{}' from gateway '{}'", getThing().getUID(), gateway.getId());
+        loadHomematicDeviceValues(device);
 
         // update properties
         Map<String, String> properties = editProperties();
@@ -406,6 +407,24 @@ public class HomematicThingHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Loads the values of all channels of the device at once, remaining channels are loaded on demand.
+     */
+    private void loadHomematicDeviceValues(HmDevice device) throws GatewayNotAvailableException {
+        synchronized (this) {
+            try {
+                getHomematicGateway().loadDeviceValues(device);
+            } catch (IOException ex) {
+                if (device.isOffline()) {
+                    logger.warn("Device '{}' is OFFLINE, can't update channels", device.getAddress());
+                } else {
+                    logger.debug("Can't load values of device '{}', loading them per channel: {}",
+                            device.getAddress(), ex.getMessage());
+                }
+            }
+        }
+    }
+
     /**
      * Updates the thing status based on device status.
      */
@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.misc.HomematicClientException;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.openhab.binding.homematic.internal.model.TclScriptDataEntry;
+import org.openhab.binding.homematic.internal.model.TclScriptDataList;
+
+/**
+ * Tests the loading of the device metadata per interface and the loading of the device values with a TclRega script
+ * of the {@link CcuGateway}.
+ *
+ * @author agent - Initial contribution
+ */
+public class CcuGatewayTest {
+    private static final String GATEWAY_ID = "ccugatewaytest";
+    private static final String RF_ADDRESS = "ABC0000001";
+    private static final String RF_ADDRESS_2 = "ABC0000002";
+    private static final String HMIP_ADDRESS = "000A0000000001";
+
+    private HomematicGatewayAdapter gatewayAdapter;
+    private TestGateway gateway;
+
+    @Before
+    public void setup() {
+        gatewayAdapter = mock(HomematicGatewayAdapter.class);
+        gateway = new TestGateway(gatewayAdapter);
+    }
+
+    @After
+    public void cleanUp() {
+        new File(new File(ConfigConstants.getUserDataFolder(), "homematic"), GATEWAY_ID + "-paramsets.cache")
+                .delete();
+    }
+
+    private HmDevice createDevice(String address, HmInterface hmInterface) {
+        return createDevice(address, hmInterface, "HM-LC-Dim1-Pl3");
+    }
+
+    private HmDevice createDevice(String address, HmInterface hmInterface, String type) {
+        HmDevice device = new HmDevice(address, hmInterface, type, GATEWAY_ID, "", "1");
+        device.addChannel(new HmChannel("MAINTENANCE", 0));
+        HmChannel channel1 = new HmChannel("DIMMER", 1);
+        device.addChannel(channel1);
+        channel1.addDatapoint(createDatapoint("LEVEL", HmValueType.FLOAT, HmParamsetType.VALUES));
+        channel1.addDatapoint(createDatapoint("RAMP_TIME", HmValueType.FLOAT, HmParamsetType.MASTER));
+        HmDatapoint virtualDp = createDatapoint("ON_TIME_AUTOMATIC", HmValueType.FLOAT, HmParamsetType.VALUES);
+        virtualDp.setVirtual(true);
+        channel1.addDatapoint(virtualDp);
+        HmChannel channel2 = new HmChannel("SWITCH", 2);
+        device.addChannel(channel2);
+        channel2.addDatapoint(createDatapoint("STATE", HmValueType.BOOL, HmParamsetType.VALUES));
+        return device;
+    }
+
+    private HmDatapoint createDatapoint(String name, HmValueType type, HmParamsetType paramsetType) {
+        HmDatapoint dp = new HmDatapoint(name, name, type, null, false, paramsetType);
+        dp.setReadable(true);
+        return dp;
+    }
+
+    private TclScriptDataList createResult(String... namesAndValues) {
+        TclScriptDataList resultList = new TclScriptDataList();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            TclScriptDataEntry entry = new TclScriptDataEntry();
+            entry.name = namesAndValues[i];
+            entry.value = namesAndValues[i + 1];
+            resultList.getEntries().add(entry);
+        }
+        return resultList;
+    }
+
+    private List<HmChannel> valueChannels(HmDevice device) {
+        return Arrays.asList(device.getChannel(1), device.getChannel(2));
+    }
+
+    private Object getValue(HmDevice device, int channelNumber, String name) {
+        HmChannel channel = device.getChannel(channelNumber);
+        return channel.getDatapoint(HmDatapointInfo.createValuesInfo(channel, name)).getValue();
+    }
+
+    private boolean hasDevice(String address) {
+        try {
+            return gateway.getDevice(address) != null;
+        } catch (HomematicClientException ex) {
+            return false;
+        }
+    }
+
+    @Test
+    public void valuesOfAllChannelsAreLoadedWithOneScript() throws IOException {
+        HmDevice device = createDevice(RF_ADDRESS, HmInterface.RF);
+        gateway.scriptResult = createResult("1.LEVEL", "0.5", "2.STATE", "true");
+
+        gateway.setDeviceDatapointValues(device, valueChannels(device));
+
+        assertThat(gateway.scripts, is(Collections.singletonList("getAllDeviceValues")));
+        assertThat(gateway.scriptValues, is(Arrays.asList("BidCos-RF." + RF_ADDRESS + ":", "1.LEVEL\\t2.STATE")));
+        assertThat(gateway.channelValueLoads.isEmpty(), is(true));
+        assertThat(((Number) getValue(device, 1, "LEVEL")).doubleValue(), is(0.5));
+        assertThat(getValue(device, 2, "STATE"), is(Boolean.TRUE));
+    }
+
+    @Test
+    public void channelsWithMissingValuesAreLoadedFromTheInterface() throws IOException {
+        HmDevice device = createDevice(RF_ADDRESS, HmInterface.RF);
+        gateway.scriptResult = createResult("1.LEVEL", "0.5");
+
+        gateway.setDeviceDatapointValues(device, valueChannels(device));
+
+        assertThat(gateway.channelValueLoads, is(Collections.singletonList(device.getChannel(2))));
+    }
+
+    @Test
+    public void channelsAreLoadedFromTheInterfaceIfTheScriptFails() throws IOException {
+        HmDevice device = createDevice(RF_ADDRESS, HmInterface.HMIP);
+        gateway.scriptFailure = new IOException("CCU not reachable");
+
+        gateway.setDeviceDatapointValues(device, valueChannels(device));
+
+        assertThat(gateway.scripts, is(Collections.singletonList("getAllDeviceValues")));
+        assertThat(gateway.channelValueLoads, is(valueChannels(device)));
+    }
+
+    @Test
+    public void devicesOfOtherInterfacesAreLoadedPerChannel() throws IOException {
+        HmDevice device = createDevice(RF_ADDRESS, HmInterface.CUXD);
+
+        gateway.setDeviceDatapointValues(device, valueChannels(device));
+
+        assertThat(gateway.scripts.isEmpty(), is(true));
+        assertThat(gateway.channelValueLoads, is(valueChannels(device)));
+    }
+
+    @Test
+    public void devicesOfAllInterfacesAreLoaded() throws IOException {
+        HmDevice rfDevice = createDevice(RF_ADDRESS, HmInterface.RF);
+        HmDevice hmipDevice = createDevice(HMIP_ADDRESS, HmInterface.HMIP);
+        gateway.deviceDescriptions = Arrays.asList(rfDevice, hmipDevice);
+
+        gateway.loadAllDeviceMetadata();
+
+        verify(gatewayAdapter).onDeviceLoaded(rfDevice);
+        verify(gatewayAdapter).onDeviceLoaded(hmipDevice);
+        assertThat(hasDevice(RF_ADDRESS), is(true));
+        assertThat(hasDevice(HMIP_ADDRESS), is(true));
+    }
+
+    @Test
+    public void deviceFailingToLoadIsSkipped() throws IOException {
+        // the metadata of equal device types is shared between the interfaces, use an own type for the failing device
+        HmDevice rfDevice = createDevice(RF_ADDRESS, HmInterface.RF, "HM-LC-Sw1-FM");
+        HmDevice rfDevice2 = createDevice(RF_ADDRESS_2, HmInterface.RF);
+        HmDevice hmipDevice = createDevice(HMIP_ADDRESS, HmInterface.HMIP);
+        gateway.deviceDescriptions = Arrays.asList(rfDevice, rfDevice2, hmipDevice);
+        gateway.failingDevices.add(RF_ADDRESS);
+
+        gateway.loadAllDeviceMetadata();
+
+        verify(gatewayAdapter, never()).onDeviceLoaded(rfDevice);
+        verify(gatewayAdapter).onDeviceLoaded(rfDevice2);
+        verify(gatewayAdapter).onDeviceLoaded(hmipDevice);
+        assertThat(hasDevice(RF_ADDRESS), is(false));
+    }
+
+    @Test
+    public void devicesAreOnlyRemovedIfAllInterfacesHaveBeenLoaded() throws IOException {
+        gateway.deviceDescriptions = Arrays.asList(createDevice(RF_ADDRESS, HmInterface.RF),
+                createDevice(HMIP_ADDRESS, HmInterface.HMIP));
+        gateway.loadAllDeviceMetadata();
+
+        // the RF device has been removed from the gateway, but the HMIP interface fails
+        doThrow(new IllegalStateException("failed")).when(gatewayAdapter)
+                .onDeviceLoaded(argThat(device -> HMIP_ADDRESS.equals(device.getAddress())));
+        gateway.deviceDescriptions = Collections.singletonList(createDevice(HMIP_ADDRESS, HmInterface.HMIP));
+        gateway.loadAllDeviceMetadata();
+        assertThat(hasDevice(RF_ADDRESS), is(true));
+
+        reset(gatewayAdapter);
+        gateway.deviceDescriptions = Collections.singletonList(createDevice(HMIP_ADDRESS, HmInterface.HMIP));
+        gateway.loadAllDeviceMetadata();
+        assertThat(hasDevice(RF_ADDRESS), is(false));
+        assertThat(hasDevice(HMIP_ADDRESS), is(true));
+    }
+
+    /**
+     * CcuGateway without RPC clients and TclRega scripts, which records the requests to the CCU.
+     */
+    private static class TestGateway extends CcuGateway {
+        private List<HmDevice> deviceDescriptions = Collections.emptyList();
+        private final Set<String> failingDevices = ConcurrentHashMap.newKeySet();
+        private final List<String> scripts = new ArrayList<>();
+        private final List<String> scriptValues = new ArrayList<>();
+        private final List<HmChannel> channelValueLoads = new ArrayList<>();
+        private TclScriptDataList scriptResult = new TclScriptDataList();
+        private IOException scriptFailure;
+
+        private TestGateway(HomematicGatewayAdapter gatewayAdapter) {
+            super(GATEWAY_ID, new HomematicConfig(), gatewayAdapter, null);
+        }
+
+        @Override
+        protected List<HmDevice> getDeviceDescriptions() throws IOException {
+            return deviceDescriptions;
+        }
+
+        @Override
+        protected void addChannelDatapoints(HmChannel channel, HmParamsetType paramsetType) throws IOException {
+            if (failingDevices.contains(channel.getDevice().getAddress())) {
+                throw new IOException("Unknown device");
+            }
+        }
+
+        @Override
+        protected void setChannelDatapointValues(HmChannel channel, HmParamsetType paramsetType) throws IOException {
+            channelValueLoads.add(channel);
+        }
+
+        @Override
+        protected <T> T sendScriptByName(String scriptName, Class<T> clazz, String[] variableNames, String[] values)
+                throws IOException {
+            scripts.add(scriptName);
+            scriptValues.addAll(Arrays.asList(values));
+            if (scriptFailure != null) {
+                throw scriptFailure;
+            }
+            return clazz.cast(scriptResult);
+        }
+    }
+}
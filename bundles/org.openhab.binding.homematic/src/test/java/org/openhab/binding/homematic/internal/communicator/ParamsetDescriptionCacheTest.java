@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+
+/**
+ * Tests for {@link ParamsetDescriptionCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParamsetDescriptionCacheTest {
+    private static final String CHANNEL_ID = "HM-CC-RT-DN:1.4:4";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    @Before
+    public void setup() {
+        file = new File(folder.getRoot(), "homematic/ccu-paramsets.cache");
+    }
+
+    @Test
+    public void testDatapointsAreRestoredFromFile() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.put(CHANNEL_ID, Arrays.asList(createTemperatureDatapoint(), createModeDatapoint(), createVirtual()));
+        cache.save();
+
+        ParamsetDescriptionCache restored = new ParamsetDescriptionCache(file);
+        Collection<HmDatapoint> datapoints = restored.get(CHANNEL_ID);
+
+        assertThat(datapoints.size(), is(2));
+        Iterator<HmDatapoint> it = datapoints.iterator();
+        assertMetadata(it.next(), createTemperatureDatapoint());
+        assertMetadata(it.next(), createModeDatapoint());
+        assertThat(restored.get("HM-CC-RT-DN:1.4:5"), is(nullValue()));
+    }
+
+    @Test
+    public void testRetainAllRemovesUnknownChannels() {
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        cache.put(CHANNEL_ID, Collections.singletonList(createModeDatapoint()));
+        cache.put("HM-LC-Sw1-FM:2.8:1", Collections.singletonList(createModeDatapoint()));
+        cache.retainAll(Collections.singleton(CHANNEL_ID));
+        cache.save();
+
+        ParamsetDescriptionCache restored = new ParamsetDescriptionCache(file);
+        assertThat(restored.size(), is(1));
+        assertThat(restored.get(CHANNEL_ID), is(notNullValue()));
+    }
+
+    @Test
+    public void testCorruptFileIsIgnored() throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), new byte[] { 0, 0, 0, 1, 0 });
+
+        ParamsetDescriptionCache cache = new ParamsetDescriptionCache(file);
+        assertThat(cache.size(), is(0));
+    }
+
+    private void assertMetadata(HmDatapoint dp, HmDatapoint expected) {
+        assertThat(dp.getName(), is(expected.getName()));
+        assertThat(dp.getDescription(), is(expected.getDescription()));
+        assertThat(dp.getType(), is(expected.getType()));
+        assertThat(dp.getParamsetType(), is(expected.getParamsetType()));
+        assertThat(dp.getMinValue(), is(expected.getMinValue()));
+        assertThat(dp.getMaxValue(), is(expected.getMaxValue()));
+        assertThat(dp.getOptions(), is(expected.getOptions()));
+        assertThat(dp.isReadOnly(), is(expected.isReadOnly()));
+        assertThat(dp.isReadable(), is(expected.isReadable()));
+        assertThat(dp.getUnit(), is(expected.getUnit()));
+        assertThat(dp.getDefaultValue(), is(expected.getDefaultValue()));
+        assertThat(dp.getValue(), is(nullValue()));
+    }
+
+    private HmDatapoint createTemperatureDatapoint() {
+        HmDatapoint dp = new HmDatapoint("SET_TEMPERATURE", "SET_TEMPERATURE", HmValueType.FLOAT, 21.5, false,
+                HmParamsetType.VALUES);
+        dp.setMinValue(4.5);
+        dp.setMaxValue(30.5);
+        dp.setUnit("°C");
+        dp.setReadable(true);
+        dp.setDefaultValue(20.0);
+        return dp;
+    }
+
+    private HmDatapoint createModeDatapoint() {
+        HmDatapoint dp = new HmDatapoint("BUTTON_LOCK", "BUTTON_LOCK", HmValueType.ENUM, 1, false,
+                HmParamsetType.MASTER);
+        dp.setOptions(new String[] { "OFF", "ON" });
+        dp.setMinValue(0);
+        dp.setMaxValue(1);
+        dp.setDefaultValue(0);
+        return dp;
+    }
+
+    private HmDatapoint createVirtual() {
+        HmDatapoint dp = new HmDatapoint("RSSI", "RSSI", HmValueType.INTEGER, null, true, HmParamsetType.VALUES);
+        dp.setVirtual(true);
+        return dp;
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.message;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link BinRpcMessage}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcMessageTest {
+    private static final String ENCODING = "ISO-8859-1";
+    private final Logger logger = LoggerFactory.getLogger(BinRpcMessageTest.class);
+
+    @Test
+    public void testEventMulticallIsDecoded() throws IOException, ParseException {
+        byte[] data = createEventMulticall("NEQ0123456:1", 5).createMessage();
+
+        BinRpcMessage message = new BinRpcMessage(data, true, ENCODING);
+
+        assertThat(message.getMethodName(), is("system.multicall"));
+        Object[] calls = (Object[]) message.getResponseData()[0];
+        assertThat(calls.length, is(5));
+        Map<?, ?> call = (Map<?, ?>) calls[2];
+        assertThat(call.get("methodName"), is("event"));
+        Object[] params = (Object[]) call.get("params");
+        assertThat(params[0], is("openHAB-RF"));
+        assertThat(params[1], is("NEQ0123456:1"));
+        assertThat(params[2], is("LEVEL2"));
+        assertThat(params[3], is(0.345));
+    }
+
+    @Test
+    public void testMessagesAreDecodedFromStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(createEventMulticall("NEQ0123456:1", 3).createMessage());
+        out.write(createEventMulticall("NEQ6543210:2", 200).createMessage());
+        out.write(createEventMulticall("NEQ7777777:3", 1).createMessage());
+        InputStream in = new ByteArrayInputStream(out.toByteArray());
+
+        assertThat(getEventAddress(new BinRpcMessage(in, true, ENCODING)), is("NEQ0123456:1"));
+        assertThat(getEventAddress(new BinRpcMessage(in, true, ENCODING)), is("NEQ6543210:2"));
+        assertThat(getEventAddress(new BinRpcMessage(in, true, ENCODING)), is("NEQ7777777:3"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOversizedMessageIsRejected() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(8);
+        header.put(new byte[] { 'B', 'i', 'n', 0 });
+        header.putInt(Integer.MAX_VALUE);
+
+        new BinRpcMessage(new ByteArrayInputStream(header.array()), true, ENCODING);
+    }
+
+    @Test
+    public void testEncodedMessageIsUnchangedByDecoding() throws IOException, ParseException {
+        byte[] data = createEventMulticall("NEQ0123456:1", 2).createMessage();
+
+        byte[] decoded = new BinRpcMessage(data.clone(), true, ENCODING).createMessage();
+
+        assertThat(Arrays.equals(decoded, data), is(true));
+    }
+
+    @Test
+    public void testDoublesAreRoundedHalfDown() {
+        int[][] values = { { 0, 0 }, { 1 << 29, 1 }, { -(1 << 29), 1 }, { 1 << 29, -6 }, { 1 << 29, 40 },
+                { 123456789, -20 }, { -987654321, -3 }, { Integer.MAX_VALUE, 12 }, { Integer.MIN_VALUE, -30 },
+                { 1, -100 } };
+        for (int[] value : values) {
+            assertThat(BinRpcMessage.decodeDouble(value[0], value[1]), is(bigDecimalDouble(value[0], value[1])));
+        }
+        // 1/128 = 0.0078125 is exactly halfway between 0.007812 and 0.007813
+        assertThat(BinRpcMessage.decodeDouble(1 << 23, 0), is(0.007812));
+        assertThat(BinRpcMessage.decodeDouble(-(1 << 23), 0), is(-0.007812));
+    }
+
+    /**
+     * Decodes a multicall with the events of a busy CCU like the network service does, run with
+     * -Dhomematic.benchmark=true.
+     */
+    @Test
+    public void benchmarkEventMulticall() throws IOException {
+        assumeTrue(Boolean.getBoolean("homematic.benchmark"));
+
+        byte[] data = createEventMulticall("NEQ0123456:1", 20).createMessage();
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int iterations = 200000;
+        int events = 0;
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                BinRpcMessage message = new BinRpcMessage(buffer.duplicate(), true, ENCODING);
+                events += ((Object[]) message.getResponseData()[0]).length;
+            }
+            long nanos = System.nanoTime() - start;
+            logger.info("BinRpcMessage: {} bytes, {} ns/message", data.length, nanos / iterations);
+        }
+        assertThat(events, is(5 * iterations * 20));
+    }
+
+    private String getEventAddress(BinRpcMessage message) {
+        Object[] calls = (Object[]) message.getResponseData()[0];
+        Map<?, ?> call = (Map<?, ?>) calls[0];
+        return (String) ((Object[]) call.get("params"))[1];
+    }
+
+    private BinRpcMessage createEventMulticall(String address, int eventCount) {
+        List<Object> calls = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            Map<String, Object> call = new HashMap<>();
+            call.put("methodName", "event");
+            List<Object> params = new ArrayList<>();
+            params.add("openHAB-RF");
+            params.add(address);
+            switch (i % 4) {
+                case 0:
+                    params.add("STATE");
+                    params.add(Boolean.TRUE);
+                    break;
+                case 1:
+                    params.add("RSSI_DEVICE");
+                    params.add(-65);
+                    break;
+                case 2:
+                    params.add("LEVEL" + i);
+                    params.add(0.345);
+                    break;
+                default:
+                    params.add("ERROR");
+                    params.add("NO_ERROR");
+            }
+            call.put("params", params);
+            calls.add(call);
+        }
+        BinRpcMessage message = new BinRpcMessage("system.multicall", ENCODING);
+        message.addArg(calls);
+        return message;
+    }
+
+    private static double bigDecimalDouble(int mantissa, int exponent) {
+        BigDecimal bd = new BigDecimal((double) mantissa / (double) (1 << 30) * Math.pow(2, exponent));
+        return bd.setScale(6, RoundingMode.HALF_DOWN).doubleValue();
+    }
+}
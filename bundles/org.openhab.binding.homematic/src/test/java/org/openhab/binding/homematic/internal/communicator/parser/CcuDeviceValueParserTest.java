@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.parser;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.model.HmChannel;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.binding.homematic.internal.model.HmDevice;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+import org.openhab.binding.homematic.internal.model.HmValueType;
+import org.openhab.binding.homematic.internal.model.TclScriptDataEntry;
+import org.openhab.binding.homematic.internal.model.TclScriptDataList;
+
+/**
+ * Tests for {@link CcuDeviceValueParser}.
+ *
+ * @author agent - Initial contribution
+ */
+public class CcuDeviceValueParserTest {
+
+    private HmDevice device;
+    private HmDatapoint level;
+    private HmDatapoint working;
+    private HmDatapoint text;
+    private HmDatapoint rssi;
+
+    @Before
+    public void setup() {
+        device = new HmDevice("ABC12345678", HmInterface.RF, "HM-LC-Dim1-Pl3", "CCU2", "", "1");
+        HmChannel channel0 = new HmChannel("MAINTENANCE", 0);
+        HmChannel channel1 = new HmChannel("DIMMER", 1);
+        device.addChannel(channel0);
+        device.addChannel(channel1);
+
+        rssi = createDatapoint(channel0, "RSSI_DEVICE", HmValueType.INTEGER);
+        level = createDatapoint(channel1, "LEVEL", HmValueType.FLOAT);
+        working = createDatapoint(channel1, "WORKING", HmValueType.BOOL);
+        text = createDatapoint(channel1, "TEXT", HmValueType.STRING);
+    }
+
+    private HmDatapoint createDatapoint(HmChannel channel, String name, HmValueType type) {
+        HmDatapoint dp = new HmDatapoint(name, name, type, null, false, HmParamsetType.VALUES);
+        channel.addDatapoint(dp);
+        return dp;
+    }
+
+    private TclScriptDataList createResult(String... namesAndValues) {
+        TclScriptDataList resultList = new TclScriptDataList();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            TclScriptDataEntry entry = new TclScriptDataEntry();
+            entry.name = namesAndValues[i];
+            entry.value = namesAndValues[i + 1];
+            resultList.getEntries().add(entry);
+        }
+        return resultList;
+    }
+
+    @Test
+    public void valuesAreConvertedToTheDatapointType() throws IOException {
+        Set<String> loadedNames = new CcuDeviceValueParser(device).parse(
+                createResult("1.LEVEL", "0.5", "1.WORKING", "true", "1.TEXT", " hello ", "0.RSSI_DEVICE", "-60"));
+
+        assertThat(((Number) level.getValue()).doubleValue(), is(0.5));
+        assertThat(working.getValue(), is(Boolean.TRUE));
+        assertThat(text.getValue(), is("hello"));
+        assertThat(rssi.getValue(), is(-60));
+        assertThat(loadedNames.size(), is(4));
+        assertThat(loadedNames.contains("1.LEVEL"), is(true));
+        assertThat(loadedNames.contains("0.RSSI_DEVICE"), is(true));
+    }
+
+    @Test
+    public void falseAndEmptyValuesAreConverted() throws IOException {
+        working.setValue(Boolean.TRUE);
+        text.setValue("hello");
+
+        new CcuDeviceValueParser(device).parse(createResult("1.WORKING", "false", "1.TEXT", ""));
+
+        assertThat(working.getValue(), is(Boolean.FALSE));
+        assertThat(text.getValue(), is(nullValue()));
+    }
+
+    @Test
+    public void malformedNumberIsSetToNull() throws IOException {
+        level.setValue(0.25);
+
+        Set<String> loadedNames = new CcuDeviceValueParser(device).parse(createResult("1.LEVEL", "abc"));
+
+        assertThat(level.getValue(), is(nullValue()));
+        assertThat(loadedNames.contains("1.LEVEL"), is(true));
+    }
+
+    @Test
+    public void malformedNamesAreSkipped() throws IOException {
+        Set<String> loadedNames = new CcuDeviceValueParser(device).parse(createResult("LEVEL", "0.1", "x.LEVEL", "0.2",
+                ".LEVEL", "0.3", "5.LEVEL", "0.4", "1.UNKNOWN", "0.5", null, "0.6", "1.LEVEL", "0.75"));
+
+        assertThat(loadedNames.size(), is(1));
+        assertThat(loadedNames.contains("1.LEVEL"), is(true));
+        assertThat(((Number) level.getValue()).doubleValue(), is(0.75));
+    }
+
+    @Test
+    public void rssiValueOutOfRangeIsAdjusted() throws IOException {
+        new CcuDeviceValueParser(device).parse(createResult("0.RSSI_DEVICE", "65536"));
+
+        assertThat(rssi.getValue(), is(0));
+    }
+
+    @Test
+    public void emptyResultLoadsNothing() throws IOException {
+        Set<String> loadedNames = new CcuDeviceValueParser(device).parse(new TclScriptDataList());
+
+        assertThat(loadedNames.isEmpty(), is(true));
+        assertThat(level.getValue(), is(nullValue()));
+    }
+}
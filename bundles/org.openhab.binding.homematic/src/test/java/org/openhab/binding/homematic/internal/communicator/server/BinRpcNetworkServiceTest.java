@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.common.HomematicConfig;
+import org.openhab.binding.homematic.internal.communicator.message.BinRpcMessage;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+
+/**
+ * Tests for {@link BinRpcNetworkService}.
+ *
+ * @author agent - Initial contribution
+ */
+public class BinRpcNetworkServiceTest {
+    private static final int EVENT_LIST_RESPONSE_LENGTH = 29;
+
+    private final Map<String, List<Object>> valuesByDevice = new HashMap<>();
+    private BinRpcNetworkService networkService;
+    private HomematicConfig config;
+
+    @Before
+    public void setup() throws IOException {
+        config = new HomematicConfig();
+        config.setBindAddress("127.0.0.1");
+        config.setBinCallbackPort(0);
+        networkService = new BinRpcNetworkService(new RpcEventListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                synchronized (valuesByDevice) {
+                    valuesByDevice.computeIfAbsent(dpInfo.getAddress(), a -> new ArrayList<>()).add(newValue);
+                }
+            }
+
+            @Override
+            public void newDevices(List<String> adresses) {
+            }
+
+            @Override
+            public void deleteDevices(List<String> addresses) {
+            }
+        }, config);
+        new Thread(networkService).start();
+    }
+
+    @After
+    public void tearDown() {
+        networkService.shutdown();
+    }
+
+    @Test
+    public void testMulticallsAreHandledOnKeepAliveConnections() throws IOException {
+        try (Socket first = new Socket("127.0.0.1", networkService.getPort());
+                Socket second = new Socket("127.0.0.1", networkService.getPort())) {
+            for (int i = 0; i < 10; i++) {
+                sendAndAwaitResponse(first, createEventMulticall("NEQ0000001", i * 3, 3), 1);
+                sendAndAwaitResponse(second, createEventMulticall("NEQ0000002", i * 3, 3), 1);
+            }
+        }
+
+        assertValues("NEQ0000001", 30);
+        assertValues("NEQ0000002", 30);
+    }
+
+    @Test
+    public void testFragmentedAndLargeMessagesAreHandled() throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", networkService.getPort())) {
+            // sent in chunks of a few bytes
+            sendAndAwaitResponse(socket, createEventMulticall("NEQ0000003", 0, 5), 7);
+            // larger than the receive buffer
+            sendAndAwaitResponse(socket, createEventMulticall("NEQ0000003", 5, 500), 4096);
+            sendAndAwaitResponse(socket, createEventMulticall("NEQ0000003", 505, 5), 4096);
+        }
+
+        assertValues("NEQ0000003", 510);
+    }
+
+    private void assertValues(String address, int count) {
+        synchronized (valuesByDevice) {
+            List<Object> values = valuesByDevice.get(address);
+            assertThat(values.size(), is(count));
+            for (int i = 0; i < count; i++) {
+                assertThat(values.get(i), is(i));
+            }
+        }
+    }
+
+    private void sendAndAwaitResponse(Socket socket, byte[] message, int chunkSize) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        for (int offset = 0; offset < message.length; offset += chunkSize) {
+            out.write(message, offset, Math.min(chunkSize, message.length - offset));
+            out.flush();
+        }
+        byte[] response = new byte[EVENT_LIST_RESPONSE_LENGTH];
+        new DataInputStream(socket.getInputStream()).readFully(response);
+        assertThat(response[0], is((byte) 'B'));
+        assertThat(response[3], is((byte) 1));
+    }
+
+    private byte[] createEventMulticall(String address, int firstValue, int eventCount) {
+        List<Object> calls = new ArrayList<>();
+        for (int i = 0; i < eventCount; i++) {
+            Map<String, Object> call = new HashMap<>();
+            call.put("methodName", "event");
+            List<Object> params = new ArrayList<>();
+            params.add("openHAB-RF");
+            params.add(address + ":1");
+            params.add("LEVEL");
+            params.add(firstValue + i);
+            call.put("params", params);
+            calls.add(call);
+        }
+        BinRpcMessage message = new BinRpcMessage("system.multicall", config.getEncoding());
+        message.addArg(calls);
+        return message.createMessage();
+    }
+}
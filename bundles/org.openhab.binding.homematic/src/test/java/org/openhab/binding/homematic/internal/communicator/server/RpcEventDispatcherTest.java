@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.homematic.internal.communicator.server;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.model.HmDatapointInfo;
+import org.openhab.binding.homematic.internal.model.HmParamsetType;
+
+/**
+ * Tests for {@link RpcEventDispatcher}.
+ *
+ * @author agent - Initial contribution
+ */
+public class RpcEventDispatcherTest {
+    private static final int EVENTS_PER_DEVICE = 500;
+    private static final String[] DEVICES = { "NEQ0000001", "NEQ0000002", "NEQ0000003", "NEQ0000004" };
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEventsAreReceivedInOrderPerDevice() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(DEVICES.length * EVENTS_PER_DEVICE);
+        Map<String, List<Object>> valuesByDevice = new HashMap<>();
+        RpcEventDispatcher dispatcher = new RpcEventDispatcher(new TestListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                synchronized (valuesByDevice) {
+                    valuesByDevice.computeIfAbsent(dpInfo.getAddress(), a -> new ArrayList<>()).add(newValue);
+                }
+                latch.countDown();
+            }
+        }, executor);
+
+        for (int i = 0; i < EVENTS_PER_DEVICE; i++) {
+            for (String device : DEVICES) {
+                dispatcher.eventReceived(new HmDatapointInfo(device, HmParamsetType.VALUES, 1, "LEVEL"), i);
+            }
+        }
+
+        assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+        for (String device : DEVICES) {
+            List<Object> values = valuesByDevice.get(device);
+            assertThat(values.size(), is(EVENTS_PER_DEVICE));
+            for (int i = 0; i < EVENTS_PER_DEVICE; i++) {
+                assertThat(values.get(i), is(i));
+            }
+        }
+    }
+
+    @Test
+    public void testDevicesAreHandledInParallel() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(1);
+        RpcEventDispatcher dispatcher = new RpcEventDispatcher(new TestListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                if (DEVICES[0].equals(dpInfo.getAddress())) {
+                    try {
+                        blocked.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
+                    received.countDown();
+                }
+            }
+        }, executor);
+
+        dispatcher.eventReceived(new HmDatapointInfo(DEVICES[0], HmParamsetType.VALUES, 1, "LEVEL"), 1);
+        dispatcher.eventReceived(new HmDatapointInfo(DEVICES[1], HmParamsetType.VALUES, 1, "LEVEL"), 1);
+
+        assertThat(received.await(10, TimeUnit.SECONDS), is(true));
+        blocked.countDown();
+    }
+
+    @Test
+    public void testNewDevicesAreDispatchedPerDevice() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        List<String> addresses = Collections.synchronizedList(new ArrayList<>());
+        RpcEventDispatcher dispatcher = new RpcEventDispatcher(new TestListener() {
+            @Override
+            public void newDevices(List<String> newAddresses) {
+                addresses.addAll(newAddresses);
+                latch.countDown();
+            }
+        }, executor);
+
+        List<String> newAddresses = new ArrayList<>();
+        newAddresses.add(DEVICES[0]);
+        newAddresses.add(DEVICES[1]);
+        dispatcher.newDevices(newAddresses);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(addresses.size(), is(2));
+        assertThat(addresses.contains(DEVICES[0]), is(true));
+        assertThat(addresses.contains(DEVICES[1]), is(true));
+    }
+
+    @Test
+    public void testCallsAreExecutedDirectlyIfRejected() {
+        List<Object> values = new ArrayList<>();
+        RpcEventDispatcher dispatcher = new RpcEventDispatcher(new TestListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                values.add(newValue);
+            }
+        }, command -> {
+            throw new RejectedExecutionException("shut down");
+        });
+
+        dispatcher.eventReceived(new HmDatapointInfo(DEVICES[0], HmParamsetType.VALUES, 1, "LEVEL"), 1);
+        dispatcher.eventReceived(new HmDatapointInfo(DEVICES[0], HmParamsetType.VALUES, 1, "LEVEL"), 2);
+
+        assertThat(values, is(Arrays.<Object> asList(1, 2)));
+    }
+
+    @Test
+    public void testShutdownDiscardsPendingCalls() {
+        List<Object> values = new ArrayList<>();
+        List<Runnable> workers = new ArrayList<>();
+        RpcEventDispatcher dispatcher = new RpcEventDispatcher(new TestListener() {
+            @Override
+            public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+                values.add(newValue);
+            }
+        }, workers::add);
+
+        dispatcher.eventReceived(new HmDatapointInfo(DEVICES[0], HmParamsetType.VALUES, 1, "LEVEL"), 1);
+        dispatcher.shutdown();
+        dispatcher.eventReceived(new HmDatapointInfo(DEVICES[0], HmParamsetType.VALUES, 1, "LEVEL"), 2);
+        workers.forEach(Runnable::run);
+
+        // only the call received after the shutdown is executed, by its own worker
+        assertThat(workers.size(), is(2));
+        assertThat(values, is(Arrays.<Object> asList(2)));
+    }
+
+    private static class TestListener implements RpcEventListener {
+        @Override
+        public void eventReceived(HmDatapointInfo dpInfo, Object newValue) {
+        }
+
+        @Override
+        public void newDevices(List<String> adresses) {
+        }
+
+        @Override
+        public void deleteDevices(List<String> addresses) {
+        }
+    }
+}
@@ -12,9 +12,16 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -85,11 +92,13 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> groupAddressListeners = new HashMap<>();
+    private final Map<GroupAddress, Set<GroupAddressListener>> listenersByGroupAddress = new ConcurrentHashMap<>();
+    private final Map<BusMessageListener, Queue<Runnable>> pendingNotifications = new HashMap<>();
     private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
 
     @FunctionalInterface
-    private interface ListenerNotification {
+    interface ListenerNotification {
         void apply(BusMessageListener listener, IndividualAddress source, GroupAddress destination, byte[] asdu);
     }
 
@@ -247,13 +256,65 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     private void processEvent(String task, ProcessEvent event, ListenerNotification action) {
-        GroupAddress destination = event.getDestination();
-        IndividualAddress source = event.getSourceAddr();
-        byte[] asdu = event.getASDU();
+        processEvent(task, event.getSourceAddr(), event.getDestination(), event.getASDU(), action);
+    }
+
+    /**
+     * Notifies the listeners registered for the destination of a telegram.
+     */
+    void processEvent(String task, IndividualAddress source, GroupAddress destination, byte[] asdu,
+            ListenerNotification action) {
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
+        Set<GroupAddressListener> listeners = listenersByGroupAddress.get(destination);
+        if (listeners != null) {
+            for (GroupAddressListener listener : listeners) {
+                notifyListener(listener, () -> action.apply(listener, source, destination, asdu));
+            }
+        }
+    }
+
+    /**
+     * Adds the notification to the queue of the listener. Only one task per listener is scheduled, it handles all
+     * notifications queued until it runs, so telegrams for the same listener are processed in order.
+     */
+    private void notifyListener(BusMessageListener listener, Runnable notification) {
+        boolean schedule = false;
+        synchronized (pendingNotifications) {
+            Queue<Runnable> queue = pendingNotifications.get(listener);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                pendingNotifications.put(listener, queue);
+                schedule = true;
+            }
+            queue.add(notification);
+        }
+        if (schedule) {
+            try {
+                knxScheduler.schedule(() -> processNotifications(listener), 0, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                // other telegrams might have been queued in the meantime, process them in order on this thread
+                logger.debug("Notifying '{}' about telegrams directly: {}", listener, e.getMessage());
+                processNotifications(listener);
+            }
+        }
+    }
+
+    private void processNotifications(BusMessageListener listener) {
+        while (true) {
+            Runnable notification;
+            synchronized (pendingNotifications) {
+                Queue<Runnable> queue = pendingNotifications.get(listener);
+                notification = queue != null ? queue.poll() : null;
+                if (notification == null) {
+                    pendingNotifications.remove(listener);
+                    return;
+                }
+            }
+            try {
+                notification.run();
+            } catch (RuntimeException e) {
+                logger.warn("An error occurred while notifying '{}' about a telegram: {}", listener, e.getMessage(),
+                        e);
             }
         }
     }
@@ -377,12 +438,41 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = new HashSet<>(listener.getGroupAddresses());
+            Set<GroupAddress> previousAddresses = groupAddressListeners.put(listener, groupAddresses);
+            if (previousAddresses != null) {
+                removeFromIndex(listener, previousAddresses);
+            }
+            for (GroupAddress groupAddress : groupAddresses) {
+                listenersByGroupAddress.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>())
+                        .add(listener);
+            }
+            return previousAddresses == null;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (groupAddressListeners) {
+            Set<GroupAddress> groupAddresses = groupAddressListeners.remove(listener);
+            if (groupAddresses != null) {
+                removeFromIndex(listener, groupAddresses);
+            }
+            return groupAddresses != null;
+        }
+    }
+
+    private void removeFromIndex(GroupAddressListener listener, Set<GroupAddress> groupAddresses) {
+        for (GroupAddress groupAddress : groupAddresses) {
+            Set<GroupAddressListener> listeners = listenersByGroupAddress.get(groupAddress);
+            if (listeners != null) {
+                listeners.remove(listener);
+                if (listeners.isEmpty()) {
+                    listenersByGroupAddress.remove(groupAddress);
+                }
+            }
+        }
     }
 
     @Override
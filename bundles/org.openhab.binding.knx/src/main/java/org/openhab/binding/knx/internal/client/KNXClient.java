@@ -61,7 +61,8 @@ public interface KNXClient {
     void restartNetworkDevice(@Nullable IndividualAddress address);
 
     /**
-     * Register the given listener to be informed on KNX bus traffic.
+     * Register the given listener to be informed on KNX bus traffic. Registering an already registered listener
+     * updates the group addresses it is informed about.
      *
      * @param listener the listener
      * @return {@code true} if it wasn't registered before
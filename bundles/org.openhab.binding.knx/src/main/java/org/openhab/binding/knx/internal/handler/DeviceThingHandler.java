@@ -15,8 +15,11 @@ package org.openhab.binding.knx.internal.handler;
 import static org.openhab.binding.knx.internal.KNXBindingConstants.*;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -69,7 +72,9 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
     private final Logger logger = LoggerFactory.getLogger(DeviceThingHandler.class);
 
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
-    private final Set<GroupAddress> groupAddresses = new HashSet<>();
+    private volatile Set<GroupAddress> groupAddresses = Collections.emptySet();
+    private volatile Map<GroupAddress, Map<ChannelUID, InboundSpec>> listenSpecs = Collections.emptyMap();
+    private volatile Map<GroupAddress, List<Channel>> respondingChannels = Collections.emptyMap();
     private final Set<GroupAddress> groupAddressesWriteBlockedOnce = new HashSet<>();
     private final Set<OutboundSpec> groupAddressesRespondingSpec = new HashSet<>();
     private final Map<GroupAddress, @Nullable ScheduledFuture<?>> readFutures = new HashMap<>();
@@ -83,18 +88,50 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
 
     @Override
     public void initialize() {
-        super.initialize();
         DeviceConfig config = getConfigAs(DeviceConfig.class);
         readInterval = config.getReadInterval().intValue();
+        // the group addresses must be known before the handler registers at the client
         initializeGroupAddresses();
+        super.initialize();
     }
 
+    /**
+     * Collects the group addresses of all channels and indexes the listen specs of the channels and the control
+     * channels answering read requests by group address, so that received telegrams don't need to parse the channel
+     * configurations. As {@link #thingUpdated(Thing)} initializes the handler again, the index follows changes of the
+     * channels.
+     */
     private void initializeGroupAddresses() {
-        forAllChannels((selector, channelConfiguration) -> {
-            groupAddresses.addAll(selector.getReadAddresses(channelConfiguration));
-            groupAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
-            groupAddresses.addAll(selector.getListenAddresses(channelConfiguration));
-        });
+        Set<GroupAddress> groupAddresses = new HashSet<>();
+        Map<GroupAddress, Map<ChannelUID, InboundSpec>> listenSpecs = new HashMap<>();
+        Map<GroupAddress, List<Channel>> respondingChannels = new HashMap<>();
+        for (Channel channel : getThing().getChannels()) {
+            withKNXType(channel, (selector, channelConfiguration) -> {
+                Set<GroupAddress> channelAddresses = new HashSet<>();
+                channelAddresses.addAll(selector.getReadAddresses(channelConfiguration));
+                channelAddresses.addAll(selector.getWriteAddresses(channelConfiguration));
+                for (GroupAddress listenAddress : selector.getListenAddresses(channelConfiguration)) {
+                    channelAddresses.add(listenAddress);
+                    InboundSpec listenSpec = selector.getListenSpec(channelConfiguration, listenAddress);
+                    if (listenSpec != null) {
+                        listenSpecs.computeIfAbsent(listenAddress, ga -> new LinkedHashMap<>()).put(channel.getUID(),
+                                listenSpec);
+                    }
+                }
+                if (isControl(channel.getUID())) {
+                    for (GroupAddress groupAddress : channelAddresses) {
+                        if (selector.getResponseSpec(channelConfiguration, groupAddress,
+                                RefreshType.REFRESH) != null) {
+                            respondingChannels.computeIfAbsent(groupAddress, ga -> new ArrayList<>()).add(channel);
+                        }
+                    }
+                }
+                groupAddresses.addAll(channelAddresses);
+            });
+        }
+        this.groupAddresses = groupAddresses;
+        this.listenSpecs = listenSpecs;
+        this.respondingChannels = respondingChannels;
     }
 
     @Override
@@ -130,12 +167,6 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         }
     }
 
-    private void forAllChannels(ChannelFunction function) {
-        for (Channel channel : getThing().getChannels()) {
-            withKNXType(channel, function);
-        }
-    }
-
     @Override
     public void channelLinked(ChannelUID channelUID) {
         if (!isControl(channelUID)) {
@@ -191,8 +222,8 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
     }
 
     @Override
-    public boolean listensTo(GroupAddress destination) {
-        return groupAddresses.contains(destination);
+    public Set<GroupAddress> getGroupAddresses() {
+        return groupAddresses;
     }
 
     /** KNXIO remember controls, removeIf may be null */
@@ -286,23 +317,19 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
     public void onGroupRead(AbstractKNXClient client, IndividualAddress source, GroupAddress destination, byte[] asdu) {
         logger.trace("onGroupRead Thing '{}' received a GroupValueRead telegram from '{}' for destination '{}'",
                 getThing().getUID(), source, destination);
-        for (Channel channel : getThing().getChannels()) {
-            if (isControl(channel.getUID())) {
-                withKNXType(channel, (selector, configuration) -> {
-                    OutboundSpec responseSpec = selector.getResponseSpec(configuration, destination,
-                            RefreshType.REFRESH);
-                    if (responseSpec != null) {
-                        logger.trace("onGroupRead isControl -> postCommand");
-                        // This event should be sent to KNX as GroupValueResponse immediately.
-                        sendGroupValueResponse(channel, destination);
-                        // Send REFRESH to openHAB to get this event for scripting with postCommand
-                        // and remember to ignore/block this REFRESH to be sent back to KNX as GroupValueWrite after
-                        // postCommand is done!
-                        groupAddressesWriteBlockedOnce.add(destination);
-                        postCommand(channel.getUID().getId(), RefreshType.REFRESH);
-                    }
-                });
-            }
+        List<Channel> channels = respondingChannels.get(destination);
+        if (channels == null) {
+            return;
+        }
+        for (Channel channel : channels) {
+            logger.trace("onGroupRead isControl -> postCommand");
+            // This event should be sent to KNX as GroupValueResponse immediately.
+            sendGroupValueResponse(channel, destination);
+            // Send REFRESH to openHAB to get this event for scripting with postCommand
+            // and remember to ignore/block this REFRESH to be sent back to KNX as GroupValueWrite after
+            // postCommand is done!
+            groupAddressesWriteBlockedOnce.add(destination);
+            postCommand(channel.getUID().getId(), RefreshType.REFRESH);
         }
     }
 
@@ -324,31 +351,33 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         logger.debug("onGroupWrite Thing '{}' received a GroupValueWrite telegram from '{}' for destination '{}'",
                 getThing().getUID(), source, destination);
 
-        for (Channel channel : getThing().getChannels()) {
-            withKNXType(channel, (selector, configuration) -> {
-                InboundSpec listenSpec = selector.getListenSpec(configuration, destination);
-                if (listenSpec != null) {
-                    logger.trace(
-                            "onGroupWrite Thing '{}' processes a GroupValueWrite telegram for destination '{}' for channel '{}'",
-                            getThing().getUID(), destination, channel.getUID());
-                    /**
-                     * Remember current KNXIO outboundSpec only if it is a control channel.
-                     */
-                    if (isControl(channel.getUID())) {
-                        logger.trace("onGroupWrite isControl");
-                        Type type = typeHelper.toType(
-                                new CommandDP(destination, getThing().getUID().toString(), 0, listenSpec.getDPT()),
-                                asdu);
-                        if (type != null) {
-                            OutboundSpec commandSpec = selector.getCommandSpec(configuration, typeHelper, type);
-                            if (commandSpec != null) {
-                                rememberRespondingSpec(commandSpec, true);
-                            }
+        Map<ChannelUID, InboundSpec> channelListenSpecs = listenSpecs.get(destination);
+        if (channelListenSpecs == null) {
+            return;
+        }
+        for (Map.Entry<ChannelUID, InboundSpec> entry : channelListenSpecs.entrySet()) {
+            ChannelUID channelUID = entry.getKey();
+            InboundSpec listenSpec = entry.getValue();
+            logger.trace(
+                    "onGroupWrite Thing '{}' processes a GroupValueWrite telegram for destination '{}' for channel '{}'",
+                    getThing().getUID(), destination, channelUID);
+            /**
+             * Remember current KNXIO outboundSpec only if it is a control channel.
+             */
+            if (isControl(channelUID)) {
+                logger.trace("onGroupWrite isControl");
+                withKNXType(channelUID, (selector, configuration) -> {
+                    Type type = typeHelper.toType(
+                            new CommandDP(destination, getThing().getUID().toString(), 0, listenSpec.getDPT()), asdu);
+                    if (type != null) {
+                        OutboundSpec commandSpec = selector.getCommandSpec(configuration, typeHelper, type);
+                        if (commandSpec != null) {
+                            rememberRespondingSpec(commandSpec, true);
                         }
                     }
-                    processDataReceived(destination, asdu, listenSpec, channel.getUID());
-                }
-            });
+                });
+            }
+            processDataReceived(destination, asdu, listenSpec, channelUID);
         }
     }
 
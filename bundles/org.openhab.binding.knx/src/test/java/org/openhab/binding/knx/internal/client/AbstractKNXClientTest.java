@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.openhab.binding.knx.internal.handler.GroupAddressListener;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.IndividualAddress;
+import tuwien.auto.calimero.link.KNXNetworkLink;
+
+/**
+ * Tests the dispatching of telegrams to the {@link GroupAddressListener}s of the {@link AbstractKNXClient}.
+ *
+ * @author agent - Initial contribution
+ */
+public class AbstractKNXClientTest {
+
+    private final IndividualAddress source = new IndividualAddress(1, 1, 1);
+    private final GroupAddress ga1 = new GroupAddress(1, 0, 1);
+    private final GroupAddress ga2 = new GroupAddress(1, 0, 2);
+    private final GroupAddress ga3 = new GroupAddress(1, 0, 3);
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private AbstractKNXClient client;
+
+    @Before
+    public void setup() {
+        scheduler = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        }).when(scheduler).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        client = new AbstractKNXClient(0, new ThingUID("knx:ip:test"), 1, 1, 1, scheduler,
+                mock(StatusUpdateCallback.class)) {
+            @Override
+            protected KNXNetworkLink establishConnection() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private GroupAddressListener listener(GroupAddress... groupAddresses) {
+        GroupAddressListener listener = mock(GroupAddressListener.class);
+        when(listener.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(groupAddresses)));
+        return listener;
+    }
+
+    private void groupWrite(GroupAddress destination, byte value) {
+        client.processEvent("Group Write", source, destination, new byte[] { value },
+                (listener, s, d, asdu) -> listener.onGroupWrite(client, s, d, asdu));
+    }
+
+    private void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    public void telegramsAreDispatchedToIndexedListenersInOrder() {
+        GroupAddressListener listener1 = listener(ga1, ga2);
+        GroupAddressListener listener2 = listener(ga3);
+        assertTrue(client.registerGroupAddressListener(listener1));
+        assertTrue(client.registerGroupAddressListener(listener2));
+
+        groupWrite(ga1, (byte) 1);
+        groupWrite(ga2, (byte) 2);
+        groupWrite(ga1, (byte) 3);
+        // the telegrams for a listener are processed by a single task
+        assertEquals(1, scheduled.size());
+        runScheduled();
+
+        InOrder inOrder = inOrder(listener1);
+        inOrder.verify(listener1).onGroupWrite(client, source, ga1, new byte[] { 1 });
+        inOrder.verify(listener1).onGroupWrite(client, source, ga2, new byte[] { 2 });
+        inOrder.verify(listener1).onGroupWrite(client, source, ga1, new byte[] { 3 });
+        verify(listener2, never()).onGroupWrite(any(), any(), any(), any());
+    }
+
+    @Test
+    public void registeringAgainUpdatesTheIndex() {
+        GroupAddressListener listener1 = listener(ga1, ga2);
+        GroupAddressListener listener2 = listener(ga3);
+        client.registerGroupAddressListener(listener1);
+        client.registerGroupAddressListener(listener2);
+
+        when(listener1.getGroupAddresses()).thenReturn(new HashSet<>(Arrays.asList(ga3)));
+        assertFalse(client.registerGroupAddressListener(listener1));
+
+        groupWrite(ga1, (byte) 1);
+        groupWrite(ga3, (byte) 2);
+        groupWrite(ga3, (byte) 3);
+        runScheduled();
+
+        verify(listener1, never()).onGroupWrite(client, source, ga1, new byte[] { 1 });
+        for (GroupAddressListener listener : Arrays.asList(listener1, listener2)) {
+            InOrder inOrder = inOrder(listener);
+            inOrder.verify(listener).onGroupWrite(client, source, ga3, new byte[] { 2 });
+            inOrder.verify(listener).onGroupWrite(client, source, ga3, new byte[] { 3 });
+        }
+
+        assertTrue(client.unregisterGroupAddressListener(listener1));
+        groupWrite(ga3, (byte) 4);
+        runScheduled();
+        verify(listener1, never()).onGroupWrite(client, source, ga3, new byte[] { 4 });
+        verify(listener2).onGroupWrite(client, source, ga3, new byte[] { 4 });
+    }
+
+    @Test
+    public void telegramsAreDispatchedDirectlyIfRejected() {
+        doThrow(new RejectedExecutionException("shut down")).when(scheduler).schedule(any(Runnable.class), anyLong(),
+                any(TimeUnit.class));
+        GroupAddressListener listener1 = listener(ga1);
+        client.registerGroupAddressListener(listener1);
+
+        groupWrite(ga1, (byte) 1);
+        groupWrite(ga1, (byte) 2);
+
+        InOrder inOrder = inOrder(listener1);
+        inOrder.verify(listener1).onGroupWrite(client, source, ga1, new byte[] { 1 });
+        inOrder.verify(listener1).onGroupWrite(client, source, ga1, new byte[] { 2 });
+    }
+}
@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
+import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NIO based log file reader implementation.
+ * <p>
+ * The reader sleeps on a {@link WatchService} registered for the directory of the file, instead of polling the file
+ * in a fixed interval. New data is read with a {@link FileChannel} into a reusable buffer and the lines are sent to
+ * the listeners in batches. The refresh rate is the minimum interval between two reads, so a busy log file is read
+ * at most once per refresh rate.
+ * <p>
+ * A rotation is detected if the file key (the inode on Unix like systems) of the file changes or the file shrinks.
+ * The remaining lines of the rotated file are read before the new file is opened.
+ *
+ * @author agent - Initial contribution
+ */
+public class NioFileTailer extends AbstractLogFileReader implements LogFileReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BATCH_SIZE = 500;
+    /**
+     * The file is checked at least this often, in case the file system does not report changes
+     */
+    private static final long IDLE_CHECK_MILLIS = 5000;
+
+    private final Logger logger = LoggerFactory.getLogger(NioFileTailer.class);
+
+    private final Charset charset = Charset.defaultCharset();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] lineBuffer = new byte[256];
+    private int lineLength = 0;
+    private boolean seenCR = false;
+    private List<String> batch = new ArrayList<>();
+
+    private @Nullable ExecutorService executor;
+    private @Nullable WatchService watchService;
+    private volatile boolean running = false;
+
+    private Path path;
+    private long refreshRate;
+
+    @Override
+    public void start(String filePath, long refreshRate) throws FileReaderException {
+        this.path = Paths.get(filePath).toAbsolutePath();
+        this.refreshRate = Math.max(0, refreshRate);
+        lineLength = 0;
+        seenCR = false;
+        batch = new ArrayList<>();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Watch service not available, falling back to polling: {}", e.getMessage());
+            watchService = null;
+        }
+        running = true;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        this.executor = executor;
+        try {
+            logger.debug("Start executor");
+            executor.execute(this::run);
+            logger.debug("Executor started");
+        } catch (Exception e) {
+            throw new FileReaderException(e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        logger.debug("Shutdown");
+        running = false;
+        WatchService watchService = this.watchService;
+        if (watchService != null) {
+            try {
+                // wakes up the reader thread
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close watch service: {}", e.getMessage());
+            }
+        }
+        ExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        logger.debug("Shutdown complete");
+    }
+
+    private void run() {
+        @Nullable
+        FileChannel channel = null;
+        try {
+            registerDirectory();
+            Object fileKey = null;
+            long position = 0;
+
+            while (running && channel == null) {
+                try {
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                    fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+                    position = channel.size();
+                    channel.position(position);
+                } catch (NoSuchFileException e) {
+                    sendFileNotFoundToListeners();
+                    waitForChange();
+                }
+            }
+
+            long lastRead = 0;
+            while (running && channel != null) {
+                long wait = lastRead + refreshRate - System.currentTimeMillis();
+                if (wait > 0) {
+                    Thread.sleep(wait);
+                }
+                lastRead = System.currentTimeMillis();
+
+                BasicFileAttributes attributes = readAttributes(path);
+                if (attributes != null && (!Objects.equals(fileKey, attributes.fileKey())
+                        || attributes.size() < position)) {
+                    sendFileRotationToListeners();
+                    // Finish reading the rotated file before the new file is opened
+                    readLines(channel);
+                    if (lineLength > 0) {
+                        flushLine();
+                    }
+                    seenCR = false;
+                    flushBatch();
+                    try {
+                        FileChannel newChannel = FileChannel.open(path, StandardOpenOption.READ);
+                        channel.close();
+                        channel = newChannel;
+                        fileKey = attributes.fileKey();
+                        position = 0;
+                    } catch (NoSuchFileException e) {
+                        // continue with the previous file until the new one is created
+                        sendFileNotFoundToListeners();
+                    }
+                }
+
+                position = readLines(channel);
+                flushBatch();
+                waitForChange();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            if (running) {
+                sendExceptionToListeners(e);
+            }
+        } catch (Exception e) {
+            // Reading a channel that stop() closed fails as well
+            if (running) {
+                sendExceptionToListeners(e);
+            }
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    sendExceptionToListeners(e);
+                }
+            }
+            running = false;
+        }
+    }
+
+    private void registerDirectory() {
+        WatchService watchService = this.watchService;
+        Path directory = path.getParent();
+        if (watchService == null || directory == null) {
+            return;
+        }
+        try {
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (IOException e) {
+            logger.debug("Can't watch directory {}, falling back to polling: {}", directory, e.getMessage());
+            this.watchService = null;
+        }
+    }
+
+    /**
+     * Wait until the file has been changed, created or deleted, or the idle check interval passed. Changes of other
+     * files in the directory are ignored.
+     */
+    private void waitForChange() throws InterruptedException {
+        WatchService watchService = this.watchService;
+        if (watchService == null) {
+            Thread.sleep(Math.max(refreshRate, 1));
+            return;
+        }
+        Path fileName = path.getFileName();
+        long deadline = System.currentTimeMillis() + Math.max(refreshRate, IDLE_CHECK_MILLIS);
+        while (true) {
+            long timeout = deadline - System.currentTimeMillis();
+            WatchKey key = timeout > 0 ? watchService.poll(timeout, TimeUnit.MILLISECONDS) : null;
+            if (key == null) {
+                return;
+            }
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                // events might have been lost on overflow
+                if (event.kind() == OVERFLOW || fileName.equals(event.context())) {
+                    changed = true;
+                }
+            }
+            key.reset();
+            if (changed) {
+                return;
+            }
+        }
+    }
+
+    private static @Nullable BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Read all available data and split it into lines. An incomplete last line is kept until the rest of it is
+     * read.
+     *
+     * @return the position after the data read
+     */
+    private long readLines(FileChannel channel) throws IOException {
+        while (running) {
+            buffer.clear();
+            int num = channel.read(buffer);
+            if (num <= 0) {
+                break;
+            }
+            byte[] data = buffer.array();
+            for (int i = 0; i < num; i++) {
+                final byte ch = data[i];
+                switch (ch) {
+                    case '\n':
+                        seenCR = false; // swallow CR before LF
+                        flushLine();
+                        break;
+                    case '\r':
+                        if (seenCR) {
+                            appendToLine((byte) '\r');
+                        }
+                        seenCR = true;
+                        break;
+                    default:
+                        if (seenCR) {
+                            seenCR = false; // a single CR ends the line as well
+                            flushLine();
+                        }
+                        appendToLine(ch);
+                }
+            }
+        }
+        return channel.position();
+    }
+
+    private void appendToLine(byte ch) {
+        if (lineLength == lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, lineBuffer.length * 2);
+        }
+        lineBuffer[lineLength++] = ch;
+    }
+
+    private void flushLine() {
+        batch.add(new String(lineBuffer, 0, lineLength, charset));
+        lineLength = 0;
+        seenCR = false;
+        if (batch.size() >= MAX_BATCH_SIZE) {
+            flushBatch();
+        }
+    }
+
+    private void flushBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> lines = batch;
+        batch = new ArrayList<>();
+        sendLinesToListeners(lines);
+    }
+}
@@ -14,7 +14,11 @@ package org.openhab.binding.logreader.internal.handler;
 
 import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
@@ -32,6 +36,7 @@ import org.openhab.binding.logreader.internal.config.LogReaderConfiguration;
 import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
 import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
 import org.openhab.binding.logreader.internal.searchengine.SearchEngine;
+import org.openhab.binding.logreader.internal.searchengine.SearchEngineGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,6 +48,10 @@ import org.slf4j.LoggerFactory;
  * @author Pauli Anttila - Rewrite
  */
 public class LogHandler extends BaseThingHandler implements FileReaderListener {
+    private static final int ERROR_ENGINE = 0;
+    private static final int WARNING_ENGINE = 1;
+    private static final int CUSTOM_ENGINE = 2;
+
     private final Logger logger = LoggerFactory.getLogger(LogHandler.class);
 
     private LogReaderConfiguration configuration;
@@ -52,6 +61,7 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
     private SearchEngine errorEngine;
     private SearchEngine warningEngine;
     private SearchEngine customEngine;
+    private SearchEngineGroup engines;
 
     public LogHandler(Thing thing, LogFileReader fileReader) {
         super(thing);
@@ -93,6 +103,7 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
             warningEngine = new SearchEngine(configuration.warningPatterns, configuration.warningBlacklistingPatterns);
             errorEngine = new SearchEngine(configuration.errorPatterns, configuration.errorBlacklistingPatterns);
             customEngine = new SearchEngine(configuration.customPatterns, configuration.customBlacklistingPatterns);
+            engines = new SearchEngineGroup(errorEngine, warningEngine, customEngine);
 
         } catch (PatternSyntaxException e) {
             logger.debug("Illegal search pattern syntax '{}'. ", e.getMessage(), e);
@@ -170,25 +181,47 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
         if (line == null) {
             return;
         }
+        handle(Collections.singletonList(line));
+    }
 
+    @Override
+    public void handle(List<String> lines) {
         if (!(thing.getStatus() == ThingStatus.ONLINE)) {
             updateStatus(ThingStatus.ONLINE);
         }
 
-        if (errorEngine.isMatching(line)) {
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+        List<String> customEvents = new ArrayList<>();
+        for (String line : lines) {
+            BitSet matches = engines.match(line);
+            if (matches.get(ERROR_ENGINE)) {
+                errors.add(line);
+            }
+            if (matches.get(WARNING_ENGINE)) {
+                warnings.add(line);
+            }
+            if (matches.get(CUSTOM_ENGINE)) {
+                customEvents.add(line);
+            }
+        }
+
+        // States are updated once per batch, with the count and the last line of the batch
+        if (!errors.isEmpty()) {
             updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
-            triggerChannel(CHANNEL_NEWERROR, line);
+            updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(errors.get(errors.size() - 1)));
+            errors.forEach(line -> triggerChannel(CHANNEL_NEWERROR, line));
         }
-        if (warningEngine.isMatching(line)) {
+        if (!warnings.isEmpty()) {
             updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
-            triggerChannel(CHANNEL_NEWWARNING, line);
+            updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(warnings.get(warnings.size() - 1)));
+            warnings.forEach(line -> triggerChannel(CHANNEL_NEWWARNING, line));
         }
-        if (customEngine.isMatching(line)) {
+        if (!customEvents.isEmpty()) {
             updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
-            triggerChannel(CHANNEL_NEWCUSTOM, line);
+            updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT,
+                    new StringType(customEvents.get(customEvents.size() - 1)));
+            customEvents.forEach(line -> triggerChannel(CHANNEL_NEWCUSTOM, line));
         }
     }
 
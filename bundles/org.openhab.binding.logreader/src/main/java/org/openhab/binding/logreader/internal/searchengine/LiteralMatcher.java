@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.IntConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Aho-Corasick automaton which finds all occurrences of a set of literal strings in a single pass over the data.
+ * <p>
+ * Every literal is added with an integer value. {@link #scan(CharSequence, IntConsumer)} reports the values of all
+ * literals contained in the data.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class LiteralMatcher {
+
+    private static final int[] NO_VALUES = new int[0];
+
+    private static class Node {
+        final Map<Character, Node> next = new HashMap<>();
+        @Nullable
+        Node fail;
+        int[] values = NO_VALUES;
+    }
+
+    private final Node root = new Node();
+    private volatile boolean built = false;
+
+    /**
+     * Add a literal to search for.
+     *
+     * @param literal literal string, must not be empty.
+     * @param value value which is reported when the literal is found.
+     */
+    public void add(String literal, int value) {
+        if (built) {
+            throw new IllegalStateException("Literals can't be added after the first scan");
+        }
+        if (literal.isEmpty()) {
+            throw new IllegalArgumentException("Literal must not be empty");
+        }
+        Node node = root;
+        for (int i = 0; i < literal.length(); i++) {
+            node = node.next.computeIfAbsent(literal.charAt(i), c -> new Node());
+        }
+        node.values = append(node.values, new int[] { value });
+    }
+
+    /**
+     * Report the values of all literals contained in the data. A value is reported once per occurrence.
+     *
+     * @param data data against search will be done.
+     * @param consumer receives the values of found literals.
+     */
+    public void scan(CharSequence data, IntConsumer consumer) {
+        if (!built) {
+            build();
+        }
+        Node node = root;
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            Node next = node.next.get(c);
+            while (next == null && node != root) {
+                node = node.fail;
+                next = node.next.get(c);
+            }
+            node = next != null ? next : root;
+            for (int value : node.values) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Compute the failure links breadth first. The values of each node also include the values of all literals
+     * which are suffixes of it, so that the scan does not need to follow the failure links to report them.
+     */
+    private synchronized void build() {
+        if (built) {
+            return;
+        }
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.remove();
+            for (Map.Entry<Character, Node> entry : node.next.entrySet()) {
+                Node child = entry.getValue();
+                Node fail = node.fail;
+                Node target = null;
+                while (fail != null && (target = fail.next.get(entry.getKey())) == null) {
+                    fail = fail.fail;
+                }
+                child.fail = target != null ? target : root;
+                child.values = append(child.values, child.fail.values);
+                queue.add(child);
+            }
+        }
+        built = true;
+    }
+
+    private static int[] append(int[] values, int[] more) {
+        if (more.length == 0) {
+            return values;
+        }
+        int[] result = Arrays.copyOf(values, values.length + more.length);
+        System.arraycopy(more, 0, result, values.length, more.length);
+        return result;
+    }
+
+    /**
+     * Extract a literal string which every match of the given regular expression contains. Only simple expressions
+     * are analyzed: expressions with groups, character classes, escapes or bounded repetitions return null.
+     *
+     * @param regex regular expression.
+     * @return the longest required literal, or null if none could be determined.
+     */
+    public static @Nullable String requiredLiteral(String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            if ("([{|\\".indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        List<String> runs = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            char quantifier = i + 1 < regex.length() ? regex.charAt(i + 1) : 0;
+            if (c == '.' || c == '^' || c == '$' || c == '*' || c == '?' || c == '+') {
+                runs.add(run.toString());
+                run.setLength(0);
+            } else if (quantifier == '*' || quantifier == '?') {
+                // The character is optional
+                runs.add(run.toString());
+                run.setLength(0);
+            } else if (quantifier == '+') {
+                // The character is required, but may be repeated
+                run.append(c);
+                runs.add(run.toString());
+                run.setLength(0);
+            } else {
+                run.append(c);
+            }
+        }
+        runs.add(run.toString());
+
+        String longest = "";
+        for (String r : runs) {
+            if (r.length() > longest.length()) {
+                longest = r;
+            }
+        }
+        return longest.isEmpty() ? null : longest;
+    }
+}
@@ -13,8 +13,9 @@
 package org.openhab.binding.logreader.internal.searchengine;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.function.ObjIntConsumer;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -22,6 +23,9 @@ import org.eclipse.jdt.annotation.Nullable;
 
 /**
  * This class implements logic for regular expression based searching.
+ * <p>
+ * Every pattern for which a required literal substring can be determined is only evaluated if the data contains
+ * that literal. The literals of all patterns are searched in a single pass with a {@link LiteralMatcher}.
  *
  * @author Pauli Anttila - Initial contribution
  */
@@ -30,6 +34,13 @@ public class SearchEngine {
     private List<Pattern> matchers;
     private List<Pattern> blacklistingMatchers;
 
+    /**
+     * Required literals of {@link #matchers} followed by those of {@link #blacklistingMatchers}. The index of a
+     * literal is its value in the {@link LiteralMatcher}. Null if no literal could be determined for the pattern.
+     */
+    private final List<@Nullable String> literals = new ArrayList<>();
+    private final LiteralMatcher literalMatcher = new LiteralMatcher();
+
     private long matchCount;
 
     /**
@@ -42,6 +53,7 @@ public class SearchEngine {
     public SearchEngine(String patterns, String blacklistingPatterns) throws PatternSyntaxException {
         matchers = compilePatterns(patterns);
         blacklistingMatchers = compilePatterns(blacklistingPatterns);
+        forEachLiteral(literalMatcher::add);
     }
 
     /**
@@ -51,8 +63,23 @@ public class SearchEngine {
      * @return true if one of the search patterns found.
      */
     public boolean isMatching(String data) {
-        if (isMatching(matchers, data)) {
-            if (notBlacklisted(data)) {
+        BitSet literalHits = new BitSet(literals.size());
+        literalMatcher.scan(data, literalHits::set);
+        return isMatching(data, literalHits);
+    }
+
+    /**
+     * Check if data is matching to one of the provided search patterns, when the required literals contained in
+     * the data are already known.
+     *
+     * @param data data against search will be done.
+     * @param literalHits set bits are the values of the literals, as provided by
+     *            {@link #forEachLiteral(ObjIntConsumer)}, which are contained in data.
+     * @return true if one of the search patterns found.
+     */
+    boolean isMatching(String data, BitSet literalHits) {
+        if (isMatching(matchers, 0, data, literalHits)) {
+            if (!isMatching(blacklistingMatchers, matchers.size(), data, literalHits)) {
                 matchCount++;
                 return true;
             }
@@ -60,6 +87,20 @@ public class SearchEngine {
         return false;
     }
 
+    /**
+     * Provide the required literals of all search patterns with their value.
+     *
+     * @param consumer receives the literal and its value.
+     */
+    void forEachLiteral(ObjIntConsumer<String> consumer) {
+        for (int i = 0; i < literals.size(); i++) {
+            String literal = literals.get(i);
+            if (literal != null) {
+                consumer.accept(literal, i);
+            }
+        }
+    }
+
     public long getMatchCount() {
         return matchCount;
     }
@@ -86,23 +127,21 @@ public class SearchEngine {
             if (list.length > 0) {
                 for (String patternStr : list) {
                     patternsList.add(Pattern.compile(patternStr));
+                    literals.add(LiteralMatcher.requiredLiteral(patternStr));
                 }
             }
         }
         return patternsList;
     }
 
-    private boolean notBlacklisted(String data) {
-        return !isMatching(blacklistingMatchers, data);
-    }
-
-    private boolean isMatching(@Nullable List<Pattern> patterns, String data) {
-        if (patterns != null) {
-            for (Pattern pattern : patterns) {
-                Matcher matcher = pattern.matcher(data);
-                if (matcher.find()) {
-                    return true;
-                }
+    private boolean isMatching(List<Pattern> patterns, int firstLiteral, String data, BitSet literalHits) {
+        for (int i = 0; i < patterns.size(); i++) {
+            if (literals.get(firstLiteral + i) != null && !literalHits.get(firstLiteral + i)) {
+                // The required literal is missing, the pattern can't match
+                continue;
+            }
+            if (patterns.get(i).matcher(data).find()) {
+                return true;
             }
         }
         return false;
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Classifies data with several {@link SearchEngine}s at once. The required literals of the patterns of all engines
+ * are searched in a single pass, so that only the patterns which can possibly match are evaluated afterwards.
+ *
+ * @author agent - Initial contribution
+ */
+public class SearchEngineGroup {
+
+    private final SearchEngine[] engines;
+    private final LiteralMatcher literalMatcher = new LiteralMatcher();
+
+    /**
+     * Engine index and literal value within the engine of every literal value of {@link #literalMatcher}.
+     */
+    private final List<int[]> literalOwners = new ArrayList<>();
+
+    /**
+     * Initialize the group.
+     *
+     * @param engines search engines, in the order used for the result of {@link #match(String)}.
+     */
+    public SearchEngineGroup(SearchEngine... engines) {
+        this.engines = engines;
+        for (int i = 0; i < engines.length; i++) {
+            final int engine = i;
+            engines[i].forEachLiteral((literal, value) -> {
+                literalMatcher.add(literal, literalOwners.size());
+                literalOwners.add(new int[] { engine, value });
+            });
+        }
+    }
+
+    /**
+     * Check data against all search engines. Match counts of the engines are updated as with
+     * {@link SearchEngine#isMatching(String)}.
+     *
+     * @param data data against search will be done.
+     * @return set bits are the indexes of the engines which data is matching to.
+     */
+    public BitSet match(String data) {
+        BitSet[] literalHits = new BitSet[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            literalHits[i] = new BitSet();
+        }
+        literalMatcher.scan(data, value -> {
+            int[] owner = literalOwners.get(value);
+            literalHits[owner[0]].set(owner[1]);
+        });
+
+        BitSet result = new BitSet(engines.length);
+        for (int i = 0; i < engines.length; i++) {
+            if (engines[i].isMatching(data, literalHits[i])) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.test.java.JavaTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Tests for {@link NioFileTailer}.
+ *
+ * @author agent - Initial contribution
+ */
+public class NioFileTailerTest extends JavaTest {
+
+    private Path directory;
+    private Path file;
+    private NioFileTailer tailer;
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+    private final AtomicInteger rotations = new AtomicInteger();
+
+    private final FileReaderListener listener = new FileReaderListener() {
+        @Override
+        public void fileNotFound() {
+        }
+
+        @Override
+        public void fileRotated() {
+            rotations.incrementAndGet();
+        }
+
+        @Override
+        public void handle(String line) {
+            lines.add(line);
+        }
+
+        @Override
+        public void handle(Exception ex) {
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("logreader");
+        file = directory.resolve("test.log");
+        write("existing line\n");
+
+        tailer = new NioFileTailer();
+        tailer.registerListener(listener);
+        tailer.start(file.toString(), 50);
+        // Give the reader time to open the file and skip the existing content
+        Thread.sleep(300);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        tailer.stop();
+        Files.walk(directory).sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+    }
+
+    private void write(String data) throws IOException {
+        Files.write(file, data.getBytes(Charset.defaultCharset()), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Test
+    public void readsAppendedLines() throws IOException {
+        write("first\r\nsecond\nincomplete");
+        waitForAssert(() -> assertThat(lines, is(Arrays.asList("first", "second"))));
+
+        write(" line\n");
+        waitForAssert(() -> assertThat(lines, is(Arrays.asList("first", "second", "incomplete line"))));
+    }
+
+    @Test
+    public void detectsRotationByRename() throws IOException {
+        write("before rotation\n");
+        waitForAssert(() -> assertThat(lines, is(Arrays.asList("before rotation"))));
+
+        Files.move(file, directory.resolve("test.log.1"));
+        write("after rotation\n");
+        waitForAssert(() -> assertThat(lines, is(Arrays.asList("before rotation", "after rotation"))));
+        assertThat(rotations.get(), is(1));
+    }
+
+    @Test
+    public void detectsRotationByTruncation() throws IOException {
+        write("a long line before truncation\n");
+        waitForAssert(() -> assertThat(lines.size(), is(1)));
+
+        Files.write(file, "short\n".getBytes(Charset.defaultCharset()), StandardOpenOption.TRUNCATE_EXISTING);
+        waitForAssert(() -> assertThat(lines, hasItem("short")));
+        assertThat(rotations.get(), is(1));
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tests for {@link SearchEngine}, {@link SearchEngineGroup} and {@link LiteralMatcher}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SearchEngineTest {
+    private final Logger logger = LoggerFactory.getLogger(SearchEngineTest.class);
+
+    private static final String ERROR_LINE = "2020-03-01 10:00:00.000 [ERROR] [org.openhab.binding.test] - Failed";
+    private static final String WARN_LINE = "2020-03-01 10:00:00.000 [WARN ] [org.openhab.binding.test] - Retry";
+    private static final String INFO_LINE = "2020-03-01 10:00:00.000 [INFO ] [org.openhab.binding.test] - Started";
+
+    @Test
+    public void requiredLiteral() {
+        assertEquals("ERROR", LiteralMatcher.requiredLiteral("ERROR+"));
+        assertEquals("Exception", LiteralMatcher.requiredLiteral("Foo.*Exception"));
+        assertEquals("timeout", LiteralMatcher.requiredLiteral("x?timeout"));
+        assertNull(LiteralMatcher.requiredLiteral("(?i)error"));
+        assertNull(LiteralMatcher.requiredLiteral("[0-9]+"));
+        assertNull(LiteralMatcher.requiredLiteral("\\d+ errors"));
+        assertNull(LiteralMatcher.requiredLiteral(".*"));
+    }
+
+    @Test
+    public void literalMatcherFindsOverlappingLiterals() {
+        LiteralMatcher matcher = new LiteralMatcher();
+        matcher.add("he", 0);
+        matcher.add("she", 1);
+        matcher.add("hers", 2);
+        matcher.add("xyz", 3);
+        BitSet found = new BitSet();
+        matcher.scan("ushers", found::set);
+        assertTrue(found.get(0));
+        assertTrue(found.get(1));
+        assertTrue(found.get(2));
+        assertFalse(found.get(3));
+    }
+
+    @Test
+    public void blacklistedLinesAreNotCounted() {
+        SearchEngine engine = new SearchEngine("ERROR+|Exception", "binding\\.test.*Failed");
+        assertFalse(engine.isMatching(ERROR_LINE));
+        assertFalse(engine.isMatching(INFO_LINE));
+        assertTrue(engine.isMatching(INFO_LINE + " with NullPointerException"));
+        assertEquals(1, engine.getMatchCount());
+    }
+
+    @Test
+    public void groupClassifiesLikeSeparateEngines() {
+        SearchEngine error = new SearchEngine("ERROR+", null);
+        SearchEngine warning = new SearchEngine("WARN+", "Retry$");
+        SearchEngine custom = new SearchEngine("Start+ed|[0-9]{4}-03", null);
+        SearchEngineGroup group = new SearchEngineGroup(error, warning, custom);
+
+        BitSet result = group.match(ERROR_LINE);
+        assertTrue(result.get(0));
+        assertFalse(result.get(1));
+        assertTrue(result.get(2));
+
+        result = group.match(WARN_LINE);
+        assertFalse(result.get(0));
+        assertFalse(result.get(1));
+        assertTrue(result.get(2));
+
+        assertEquals(1, error.getMatchCount());
+        assertEquals(0, warning.getMatchCount());
+        assertEquals(2, custom.getMatchCount());
+    }
+
+    /**
+     * Throughput benchmark in lines/s. Skipped unless the system property "logreader.benchmark" is set to true.
+     */
+    @Test
+    public void benchmark() {
+        assumeTrue(Boolean.getBoolean("logreader.benchmark"));
+
+        StringBuilder customPatterns = new StringBuilder("Exception");
+        for (int i = 0; i < 40; i++) {
+            customPatterns.append("|device").append(i).append(" offline");
+        }
+        SearchEngine error = new SearchEngine("ERROR+", null);
+        SearchEngine warning = new SearchEngine("WARN+", "Retry");
+        SearchEngine custom = new SearchEngine(customPatterns.toString(), null);
+        SearchEngineGroup group = new SearchEngineGroup(error, warning, custom);
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add(i % 50 == 0 ? ERROR_LINE : i % 20 == 0 ? WARN_LINE : INFO_LINE + " item" + i);
+        }
+
+        final int rounds = 500;
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (String line : lines) {
+                group.match(line);
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        long linesPerSecond = (long) rounds * lines.size() * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        logger.info("Classified {} lines with {} patterns: {} lines/s", rounds * lines.size(), 43, linesPerSecond);
+    }
+}
@@ -37,6 +37,11 @@ public class ChannelConfig {
      * Instead a postCommand() call is performed.
      */
     public boolean postCommand = false;
+    /**
+     * If true, a received payload that is byte-identical to the previously received one does not update the state
+     * again. Not applied to transformed payloads or if {@link #postCommand} is set.
+     */
+    public boolean ignoreUnchangedPayload = false;
     public @Nullable Integer qos;
     public boolean retained = false;
     /** If true, the state topic will not update a state, but trigger a channel instead. */
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic;
 
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -30,6 +31,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.TopicSubtreeCache;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.slf4j.Logger;
@@ -61,6 +63,8 @@ public class ChannelState implements MqttMessageSubscriber {
     protected boolean hasSubscribed = false;
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private CompletableFuture<@Nullable Void> future = new CompletableFuture<>();
+    private byte @Nullable [] lastPayload;
+    private @Nullable TopicSubtreeCache subtreeCache;
 
     /**
      * Creates a new channel state.
@@ -152,6 +156,23 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        // Fast path: Untransformed payloads the value can parse by itself
+        if (transformationsIn.isEmpty() && !config.trigger) {
+            Command command = cachedValue.parsePayload(payload);
+            if (command != null) {
+                if (config.ignoreUnchangedPayload && !config.postCommand && Arrays.equals(payload, lastPayload)) {
+                    logger.trace("Payload on topic {} unchanged, not updating channel {}", topic, channelUID);
+                } else {
+                    lastPayload = payload;
+                    processCommand(channelStateUpdateListener, command, command.toString());
+                }
+                receivedOrTimeout();
+                return;
+            }
+        }
+        // A relative command like INCREASE, the same payload does not result in the same state
+        lastPayload = null;
+
         // String value: Apply transformations
         String strValue = new String(payload, StandardCharsets.UTF_8);
         for (ChannelStateTransformation t : transformationsIn) {
@@ -180,10 +201,22 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
+        processCommand(channelStateUpdateListener, command, strValue);
+        receivedOrTimeout();
+    }
+
+    /**
+     * Updates the cached value with the command parsed from an incoming message and informs the listener
+     *
+     * @param channelStateUpdateListener The listener to inform
+     * @param command The parsed command
+     * @param strValue The (transformed) payload, for logging
+     */
+    private void processCommand(ChannelStateUpdateListener channelStateUpdateListener, Command command,
+            String strValue) {
         Command postOnlyCommand = cachedValue.isPostOnly(command);
         if (postOnlyCommand != null) {
             channelStateUpdateListener.postChannelCommand(channelUID, postOnlyCommand);
-            receivedOrTimeout();
             return;
         }
 
@@ -193,7 +226,6 @@ public class ChannelState implements MqttMessageSubscriber {
         } catch (IllegalArgumentException | IllegalStateException e) {
             logger.warn("Command '{}' not supported by type '{}': {}", strValue, cachedValue.getClass().getSimpleName(),
                     e.getMessage());
-            receivedOrTimeout();
             return;
         }
 
@@ -202,7 +234,6 @@ public class ChannelState implements MqttMessageSubscriber {
         } else {
             channelStateUpdateListener.updateChannelState(channelUID, cachedValue.getChannelState());
         }
-        receivedOrTimeout();
     }
 
     /**
@@ -241,8 +272,10 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public CompletableFuture<@Nullable Void> stop() {
         final MqttBrokerConnection connection = this.connection;
+        final TopicSubtreeCache subtreeCache = this.subtreeCache;
         if (connection != null && StringUtils.isNotBlank(config.stateTopic)) {
-            return connection.unsubscribe(config.stateTopic, this).thenRun(this::internalStop);
+            return (subtreeCache != null ? subtreeCache.unsubscribe(config.stateTopic, this)
+                    : connection.unsubscribe(config.stateTopic, this)).thenRun(this::internalStop);
         } else {
             internalStop();
             return CompletableFuture.completedFuture(null);
@@ -254,6 +287,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        lastPayload = null;
         cachedValue.resetState();
     }
 
@@ -301,11 +335,19 @@ public class ChannelState implements MqttMessageSubscriber {
         }
 
         this.future = new CompletableFuture<>();
-        connection.subscribe(config.stateTopic, this).thenRun(() -> {
+        final TopicSubtreeCache subtreeCache = this.subtreeCache;
+        final CompletableFuture<Boolean> subscribeFuture = subtreeCache != null
+                ? subtreeCache.subscribe(config.stateTopic, this)
+                : connection.subscribe(config.stateTopic, this);
+        subscribeFuture.thenRun(() -> {
             hasSubscribed = true;
             logger.debug("Subscribed channel {} to topic: {}", this.channelUID, config.stateTopic);
             if (timeout > 0 && !future.isDone()) {
                 this.scheduledFuture = scheduler.schedule(this::receivedOrTimeout, timeout, TimeUnit.MILLISECONDS);
+                if (subtreeCache != null) {
+                    // No retained value will arrive anymore
+                    subtreeCache.whenSettled(this::receivedOrTimeout);
+                }
             } else {
                 receivedOrTimeout();
             }
@@ -313,6 +355,17 @@ public class ChannelState implements MqttMessageSubscriber {
         return future;
     }
 
+    /**
+     * Receive the state topic from the given topic subtree cache instead of subscribing on the broker connection, if
+     * the cache covers the state topic. Must be called before
+     * {@link #start(MqttBrokerConnection, ScheduledExecutorService, int)}.
+     *
+     * @param subtreeCache A topic subtree cache or null
+     */
+    public void setSubtreeCache(@Nullable TopicSubtreeCache subtreeCache) {
+        this.subtreeCache = subtreeCache != null && subtreeCache.covers(config.stateTopic) ? subtreeCache : null;
+    }
+
     /**
      * Return true if this channel has subscribed to its MQTT topics.
      * You need to call {@link #start(MqttBrokerConnection, ScheduledExecutorService, int)} and
@@ -25,6 +25,7 @@ import java.util.stream.Collectors;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.binding.mqtt.generic.tools.TopicSubtreeCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +46,11 @@ import org.slf4j.LoggerFactory;
  * </p>
  *
  * <p>
+ * If a {@link TopicSubtreeCache} is set with {@link #setSubtreeCache(TopicSubtreeCache)}, fields with a topic within
+ * that subtree are received from the cache instead of subscribing each topic on the broker.
+ * </p>
+ *
+ * <p>
  * The Homie 3.x convention uses attribute classes for Devices, Nodes and Properties configuration.
  * </p>
  *
@@ -107,6 +113,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
     protected transient AttributeChanged attributeChangedListener = (b, c, d, e, f) -> {
     };
     private transient boolean complete = false;
+    private transient @Nullable TopicSubtreeCache subtreeCache;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -145,7 +152,7 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
             return CompletableFuture.completedFuture(null);
         }
 
-        final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> connection.unsubscribe(m.topic, m))
+        final CompletableFuture<?>[] futures = subscriptions.stream().map(m -> m.unsubscribe(connection))
                 .toArray(CompletableFuture[]::new);
         subscriptions.clear();
         return CompletableFuture.allOf(futures);
@@ -245,7 +252,27 @@ public abstract class AbstractMqttAttributeClass implements SubscribeFieldToMQTT
 
         final String topic = basetopic + "/" + localPrefix + field.getName();
 
-        return createSubscriber(scheduler, field, topic, mandatory);
+        final SubscribeFieldToMQTTtopic subscriber = createSubscriber(scheduler, field, topic, mandatory);
+        subscriber.setSubtreeCache(subtreeCache);
+        return subscriber;
+    }
+
+    /**
+     * Receive field values from the given topic subtree cache, instead of subscribing each field topic on the broker.
+     * Takes effect with the next call of
+     * {@link #subscribeAndReceive(MqttBrokerConnection, ScheduledExecutorService, String, AttributeChanged, int)}.
+     *
+     * @param subtreeCache A topic subtree cache or null to subscribe on the broker
+     */
+    public void setSubtreeCache(@Nullable TopicSubtreeCache subtreeCache) {
+        this.subtreeCache = subtreeCache;
+    }
+
+    /**
+     * Return the topic subtree cache or null if none is used.
+     */
+    public @Nullable TopicSubtreeCache getSubtreeCache() {
+        return subtreeCache;
     }
 
     /**
@@ -25,6 +25,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.eclipse.smarthome.io.transport.mqtt.MqttException;
 import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.binding.mqtt.generic.tools.TopicSubtreeCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +48,7 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
     private @Nullable ScheduledFuture<?> scheduledFuture;
     private final boolean mandatory;
     private boolean receivedValue = false;
+    private @Nullable TopicSubtreeCache subtreeCache;
 
     /**
      * Implement this interface to be notified of an updated field.
@@ -161,6 +163,32 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         future.complete(null);
     }
 
+    /**
+     * Receive the value from the given topic subtree cache instead of subscribing on the broker connection, if the
+     * cache covers the topic. Must be called before {@link #subscribeAndReceive(MqttBrokerConnection, int)}.
+     *
+     * @param subtreeCache A topic subtree cache or null
+     */
+    public void setSubtreeCache(@Nullable TopicSubtreeCache subtreeCache) {
+        this.subtreeCache = subtreeCache != null && subtreeCache.covers(topic) ? subtreeCache : null;
+    }
+
+    /**
+     * The subtree cache has received all retained messages. If no value was received for this topic so far, it will
+     * not be received in time. Mandatory fields keep waiting for the configured timeout, the value might still be
+     * published.
+     */
+    private void subtreeSettled() {
+        if (!mandatory && !future.isDone()) {
+            final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
+            if (scheduledFuture != null) { // Cancel timeout
+                scheduledFuture.cancel(false);
+                this.scheduledFuture = null;
+            }
+            timeoutReached();
+        }
+    }
+
     void timeoutReached() {
         if (mandatory) {
             future.completeExceptionally(new Exception("Did not receive mandatory topic value: " + topic));
@@ -180,7 +208,10 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
      * @throws MqttException If an MQTT IO exception happens this exception is thrown.
      */
     public CompletableFuture<@Nullable Void> subscribeAndReceive(MqttBrokerConnection connection, int timeout) {
-        connection.subscribe(topic, this).exceptionally(e -> {
+        final TopicSubtreeCache subtreeCache = this.subtreeCache;
+        final CompletableFuture<Boolean> subscribeFuture = subtreeCache != null ? subtreeCache.subscribe(topic, this)
+                : connection.subscribe(topic, this);
+        subscribeFuture.exceptionally(e -> {
             logger.debug("Failed to subscribe to topic {}", topic, e);
             final ScheduledFuture<?> scheduledFuture = this.scheduledFuture;
             if (scheduledFuture != null) { // Cancel timeout
@@ -192,11 +223,25 @@ public class SubscribeFieldToMQTTtopic implements MqttMessageSubscriber {
         }).thenRun(() -> {
             if (!future.isDone()) {
                 this.scheduledFuture = scheduler.schedule(this::timeoutReached, timeout, TimeUnit.MILLISECONDS);
+                if (subtreeCache != null) {
+                    subtreeCache.whenSettled(this::subtreeSettled);
+                }
             }
         });
         return future;
     }
 
+    /**
+     * Unsubscribe from the MQTT topic, or from the subtree cache if one is used.
+     *
+     * @param connection An MQTT connection.
+     * @return Returns a future that completes as soon as the unsubscription has been performed.
+     */
+    public CompletableFuture<Boolean> unsubscribe(MqttBrokerConnection connection) {
+        final TopicSubtreeCache subtreeCache = this.subtreeCache;
+        return subtreeCache != null ? subtreeCache.unsubscribe(topic, this) : connection.unsubscribe(topic, this);
+    }
+
     /**
      * Return true if the corresponding field has received a value at least once.
      */
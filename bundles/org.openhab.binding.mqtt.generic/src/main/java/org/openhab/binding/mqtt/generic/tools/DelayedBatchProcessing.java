@@ -13,12 +13,19 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -26,6 +33,16 @@ import org.eclipse.jdt.annotation.Nullable;
 /**
  * Collects objects over time until a specified delay passed by.
  * Then call the user back with a list of accumulated objects and start over again.
+ * <p>
+ * The delay is restarted with every new object, but a batch is never held back longer than the maximum age, counted
+ * from the first object of the batch. If the maximum age equals the delay (the default), objects are delivered exactly
+ * one delay after the first object was added. A batch is delivered early as soon as it reaches the maximum batch size,
+ * and a delivered list never contains more objects than that.
+ * <p>
+ * With a key function, an object replaces a queued object with the same key. It keeps the position of the replaced
+ * object, only the latest version is delivered.
+ * <p>
+ * Adding objects is lock-free. Deliveries to the consumer are serialized.
  *
  * @author David Graeff - Initial contribution
  *
@@ -33,11 +50,28 @@ import org.eclipse.jdt.annotation.Nullable;
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
-    private final int delay;
+    private final long delayNanos;
+    private final long maxAgeNanos;
+    private final int maxBatchSize;
+    private final @Nullable Function<T, Object> keyFunction;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
     private final ScheduledExecutorService executor;
-    protected @Nullable ScheduledFuture<?> future;
+
+    // Keys in arrival order and the latest object per key
+    private final Queue<Object> order = new ConcurrentLinkedQueue<>();
+    private final Map<Object, T> queue = new ConcurrentHashMap<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private final AtomicBoolean sizeFlushScheduled = new AtomicBoolean();
+    private final Object deliveryLock = new Object();
+    private volatile long firstAddedNanos;
+    private volatile long lastAddedNanos;
+    protected volatile @Nullable ScheduledFuture<?> future;
+
+    // Metrics
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong replacedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
 
     /**
      * Creates a {@link DelayedBatchProcessing}.
@@ -47,12 +81,36 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
-        this.delay = delay;
-        this.consumer = consumer;
-        this.executor = executor;
+        this(delay, delay, Integer.MAX_VALUE, null, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay A delay in milliseconds. Objects are delivered if no new object was added for this time.
+     * @param maxAge The maximum time in milliseconds an object is held back. Must not be smaller than the delay.
+     * @param maxBatchSize The maximum number of objects delivered at once
+     * @param keyFunction Determines the key of an object for replacing queued objects. May be null.
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxAge, int maxBatchSize, @Nullable Function<T, Object> keyFunction,
+            Consumer<List<T>> consumer, ScheduledExecutorService executor) {
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxAge < delay) {
+            throw new IllegalArgumentException("Maximum age must not be smaller than the delay!");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Maximum batch size need to be greater than 0!");
+        }
+        this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delay);
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAge);
+        this.maxBatchSize = maxBatchSize;
+        this.keyFunction = keyFunction;
+        this.consumer = consumer;
+        this.executor = executor;
     }
 
     /**
@@ -63,10 +121,45 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     @Override
     public void accept(T t) {
-        queue.add(t);
-        final ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture == null || scheduledFuture.isDone()) {
-            this.future = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+        final Function<T, Object> keyFunction = this.keyFunction;
+        final Object key = keyFunction != null ? keyFunction.apply(t) : new Object();
+        lastAddedNanos = System.nanoTime();
+        if (queue.put(key, t) != null) {
+            replacedCount.incrementAndGet();
+            return;
+        }
+        final int depth = queueDepth.incrementAndGet();
+        order.add(key);
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+
+        arm();
+        if (depth >= maxBatchSize && sizeFlushScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                sizeFlushScheduled.set(false);
+                deliver(false);
+            });
+        }
+    }
+
+    private void arm() {
+        if (armed.compareAndSet(false, true)) {
+            firstAddedNanos = System.nanoTime();
+            future = executor.schedule(this::timerExpired, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void timerExpired() {
+        final long due = Math.min(lastAddedNanos + delayNanos, firstAddedNanos + maxAgeNanos);
+        final long remaining = due - System.nanoTime();
+        if (remaining > 0 && queueDepth.get() > 0) {
+            future = executor.schedule(this::timerExpired, remaining, TimeUnit.NANOSECONDS);
+            return;
+        }
+        deliver(true);
+        armed.set(false);
+        // Objects added while delivering
+        if (queueDepth.get() > 0) {
+            arm();
         }
     }
 
@@ -76,15 +169,9 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      * @return A list of accumulated objects
      */
     public List<T> join() {
-        ScheduledFuture<?> scheduledFuture = this.future;
-        if (scheduledFuture != null && !scheduledFuture.isDone()) {
-            scheduledFuture.cancel(false);
-        }
+        cancelTimer();
         List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
-        }
+        drain(lqueue, Integer.MAX_VALUE);
         return lqueue;
     }
 
@@ -100,22 +187,74 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      * Deliver queued items now to the target consumer.
      */
     public void forceProcessNow() {
+        cancelTimer();
+        deliver(true);
+    }
+
+    /**
+     * Return the number of objects waiting for delivery.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Return the highest number of objects that were waiting for delivery at the same time.
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * Return the number of objects that replaced a queued object with the same key.
+     */
+    public long getReplacedCount() {
+        return replacedCount.get();
+    }
+
+    /**
+     * Return the number of lists delivered to the consumer.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    private void cancelTimer() {
         ScheduledFuture<?> scheduledFuture = this.future;
         if (scheduledFuture != null && !scheduledFuture.isDone()) {
             scheduledFuture.cancel(false);
         }
-        run();
+        armed.set(false);
     }
 
-    private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+    /**
+     * Deliver queued objects in lists of at most the maximum batch size.
+     *
+     * @param all Deliver all objects. Otherwise only full batches are delivered and the rest is left to the timer.
+     */
+    private void deliver(boolean all) {
+        synchronized (deliveryLock) {
+            int depth;
+            while ((depth = queueDepth.get()) > 0 && (all || depth >= maxBatchSize)) {
+                List<T> lqueue = new ArrayList<>(Math.min(depth, maxBatchSize));
+                drain(lqueue, maxBatchSize);
+                if (lqueue.isEmpty()) {
+                    return;
+                }
+                batchCount.incrementAndGet();
+                consumer.accept(lqueue);
+            }
         }
+    }
 
-        if (!lqueue.isEmpty()) {
-            consumer.accept(lqueue);
+    private void drain(List<T> target, int max) {
+        Object key;
+        while (target.size() < max && (key = order.poll()) != null) {
+            T t = queue.remove(key);
+            if (t != null) {
+                queueDepth.decrementAndGet();
+                target.add(t);
+            }
         }
     }
 }
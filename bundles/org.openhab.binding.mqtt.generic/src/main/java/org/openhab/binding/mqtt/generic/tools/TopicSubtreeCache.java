@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscribes to a whole topic subtree ("base/topic/#") with a single broker subscription and keeps the last received
+ * payload of every topic within that tree.
+ * <p>
+ * Subscribers of single topics within the tree register here instead of on the broker connection. They receive the
+ * cached payload immediately and all further messages of their topic. This avoids a broker round trip per topic,
+ * for example for the many attribute topics of a Homie device.
+ * <p>
+ * MQTT does not tell when all retained messages have been received. The tree is considered settled if no message was
+ * received for a quiet period after subscribing. A topic without a payload at that time has no retained message.
+ * Use {@link #whenSettled(Runnable)} to act on that.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TopicSubtreeCache implements MqttMessageSubscriber {
+    private final Logger logger = LoggerFactory.getLogger(TopicSubtreeCache.class);
+    private final String baseTopic;
+    private final String wildcardTopic;
+
+    private final Map<String, byte[]> payloads = new ConcurrentHashMap<>();
+    private final Map<String, Set<MqttMessageSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final List<Runnable> settledListeners = new ArrayList<>();
+
+    private @Nullable MqttBrokerConnection connection;
+    private @Nullable ScheduledFuture<?> settleFuture;
+    private volatile boolean settled = false;
+    private volatile boolean stopped = false;
+    private volatile long lastMessageNanos;
+    private long subscribedNanos;
+
+    /**
+     * Creates a cache for the given subtree. Call
+     * {@link #start(MqttBrokerConnection, ScheduledExecutorService, int, int)} to subscribe.
+     *
+     * @param baseTopic The base topic of the tree, without wildcard. E.g. "homie/device"
+     */
+    public TopicSubtreeCache(String baseTopic) {
+        this.baseTopic = baseTopic;
+        this.wildcardTopic = baseTopic + "/#";
+    }
+
+    /**
+     * Subscribes to the subtree.
+     *
+     * @param connection A broker connection
+     * @param scheduler A scheduler to determine when the tree is settled
+     * @param quietPeriod The tree is settled if no message was received for this time in milliseconds
+     * @param maxSettleTime The tree is settled after this time in milliseconds, even if messages keep arriving
+     * @return A future that completes as soon as the subscription has been performed.
+     */
+    public CompletableFuture<Boolean> start(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
+            int quietPeriod, int maxSettleTime) {
+        synchronized (this) {
+            this.connection = connection;
+            stopped = false;
+        }
+        return connection.subscribe(wildcardTopic, this).thenApply(b -> {
+            subscribedNanos = System.nanoTime();
+            lastMessageNanos = subscribedNanos;
+            scheduleSettleCheck(scheduler, TimeUnit.MILLISECONDS.toNanos(quietPeriod),
+                    TimeUnit.MILLISECONDS.toNanos(maxSettleTime), TimeUnit.MILLISECONDS.toNanos(quietPeriod));
+            return b;
+        });
+    }
+
+    private void scheduleSettleCheck(ScheduledExecutorService scheduler, long quietNanos, long maxNanos,
+            long delayNanos) {
+        settleFuture = scheduler.schedule(() -> {
+            if (stopped) {
+                return;
+            }
+            final long now = System.nanoTime();
+            final long quietUntil = lastMessageNanos + quietNanos;
+            if (now < quietUntil && now - subscribedNanos < maxNanos) {
+                scheduleSettleCheck(scheduler, quietNanos, maxNanos, quietUntil - now);
+            } else {
+                settle();
+            }
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void settle() {
+        final List<Runnable> listeners;
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            settleFuture = null;
+            settled = true;
+            listeners = new ArrayList<>(settledListeners);
+            settledListeners.clear();
+        }
+        logger.trace("Topic tree {} settled with {} topics", wildcardTopic, payloads.size());
+        listeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Unsubscribes from the subtree and forgets all cached payloads and subscribers. Pending
+     * {@link #whenSettled(Runnable)} actions are run, the tree will not settle anymore.
+     *
+     * @return A future that completes as soon as the unsubscription has been performed.
+     */
+    public CompletableFuture<Boolean> stop() {
+        final List<Runnable> listeners;
+        final MqttBrokerConnection connection;
+        synchronized (this) {
+            final ScheduledFuture<?> settleFuture = this.settleFuture;
+            if (settleFuture != null) {
+                settleFuture.cancel(false);
+                this.settleFuture = null;
+            }
+            stopped = true;
+            settled = false;
+            listeners = new ArrayList<>(settledListeners);
+            settledListeners.clear();
+            connection = this.connection;
+            this.connection = null;
+        }
+        subscribers.clear();
+        payloads.clear();
+        // Waiting for the tree is pointless now
+        listeners.forEach(Runnable::run);
+        if (connection == null) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return connection.unsubscribe(wildcardTopic, this);
+    }
+
+    /**
+     * Return true if the given topic is within the subtree of this cache.
+     *
+     * @param topic A topic without wildcards
+     */
+    public boolean covers(String topic) {
+        return topic.startsWith(baseTopic) && topic.length() > baseTopic.length()
+                && topic.charAt(baseTopic.length()) == '/';
+    }
+
+    /**
+     * Return true if no message was received for the quiet period after subscribing.
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    /**
+     * Runs the given action as soon as the tree is settled, or immediately if it is settled already or the cache has
+     * been stopped.
+     *
+     * @param action The action
+     */
+    public void whenSettled(Runnable action) {
+        synchronized (this) {
+            if (!settled && !stopped) {
+                settledListeners.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Registers a subscriber for a single topic within the subtree. If a payload has been received for the topic
+     * already, it is passed to the subscriber before this method returns.
+     *
+     * @param topic A topic within the subtree, without wildcards
+     * @param subscriber The subscriber
+     * @return A completed future
+     */
+    public CompletableFuture<Boolean> subscribe(String topic, MqttMessageSubscriber subscriber) {
+        subscribers.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        final byte[] payload = payloads.get(topic);
+        if (payload != null) {
+            subscriber.processMessage(topic, payload);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Removes a subscriber of a single topic.
+     *
+     * @param topic A topic within the subtree
+     * @param subscriber The subscriber
+     * @return A completed future
+     */
+    public CompletableFuture<Boolean> unsubscribe(String topic, MqttMessageSubscriber subscriber) {
+        subscribers.computeIfPresent(topic, (t, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /**
+     * Return the cached payload of a topic or null if none has been received.
+     *
+     * @param topic A topic within the subtree
+     */
+    public byte @Nullable [] getPayload(String topic) {
+        return payloads.get(topic);
+    }
+
+    @Override
+    public void processMessage(String topic, byte[] payload) {
+        lastMessageNanos = System.nanoTime();
+        if (payload.length == 0) {
+            // Retained message cleared
+            payloads.remove(topic);
+        } else {
+            payloads.put(topic, payload);
+        }
+        final Set<MqttMessageSubscriber> topicSubscribers = subscribers.get(topic);
+        if (topicSubscribers != null) {
+            for (MqttMessageSubscriber subscriber : topicSubscribers) {
+                subscriber.processMessage(topic, payload);
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.generic.values;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.net.URLConnection;
 import java.util.List;
 
@@ -135,6 +136,45 @@ public abstract class Value {
         return null;
     }
 
+    /**
+     * Parses an MQTT payload straight into a command, without the reflection based parsing of the generic path.
+     * <p>
+     * Only unambiguous payloads should be handled here, the command must be the same as the one the
+     * generic parsing of the {@link #getSupportedCommandTypes()} would produce.
+     * </p>
+     *
+     * @param payload The raw (untransformed) MQTT payload
+     * @return The command or null if the payload needs to be parsed by the generic path
+     */
+    public @Nullable Command parsePayload(byte[] payload) {
+        return null;
+    }
+
+    /**
+     * Parses an ASCII encoded plain decimal number, like "-12.5" or "1e3".
+     *
+     * @param payload The payload
+     * @return The number or null if the payload is not a plain decimal number
+     */
+    protected static @Nullable BigDecimal parseDecimal(byte[] payload) {
+        if (payload.length == 0 || payload.length > 64) {
+            return null;
+        }
+        char[] chars = new char[payload.length];
+        for (int i = 0; i < payload.length; i++) {
+            byte b = payload[i];
+            if ((b < '0' || b > '9') && b != '-' && b != '+' && b != '.' && b != 'e' && b != 'E') {
+                return null;
+            }
+            chars[i] = (char) b;
+        }
+        try {
+            return new BigDecimal(chars);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Updates the internal value state with the given binary payload.
      *
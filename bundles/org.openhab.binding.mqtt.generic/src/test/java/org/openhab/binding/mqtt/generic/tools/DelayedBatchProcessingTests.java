@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+/**
+ * Tests the {@link DelayedBatchProcessing} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    @Mock
+    private ScheduledExecutorService executor;
+
+    @Mock
+    private ScheduledFuture<?> future;
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any());
+        // Run size triggered deliveries directly
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any());
+    }
+
+    private void runTimerAfterDelay() throws InterruptedException {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor, atLeastOnce()).schedule(captor.capture(), anyLong(), any());
+        Thread.sleep(5);
+        captor.getValue().run();
+    }
+
+    @Test
+    public void deliversAfterDelay() throws InterruptedException {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(1, batches::add, executor);
+        processing.accept("a");
+        processing.accept("b");
+        verify(executor, times(1)).schedule(any(Runnable.class), eq(TimeUnit.MILLISECONDS.toNanos(1)),
+                eq(TimeUnit.NANOSECONDS));
+        assertThat(processing.getQueueDepth(), is(2));
+
+        runTimerAfterDelay();
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+        assertThat(processing.getQueueDepth(), is(0));
+        assertThat(processing.getMaxQueueDepth(), is(2));
+        assertThat(processing.getBatchCount(), is(1L));
+    }
+
+    @Test
+    public void replacesObjectsWithSameKey() {
+        Function<String, Object> key = s -> s.substring(0, 1);
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(1, 1, 100, key, batches::add,
+                executor);
+        processing.accept("a1");
+        processing.accept("b1");
+        processing.accept("a2");
+        assertThat(processing.getQueueDepth(), is(2));
+        assertThat(processing.getReplacedCount(), is(1L));
+
+        processing.forceProcessNow();
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a2", "b1"))));
+    }
+
+    @Test
+    public void deliversFullBatchesEarly() throws InterruptedException {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(1, 1, 2, null, batches::add,
+                executor);
+        processing.accept("a");
+        assertThat(batches.size(), is(0));
+        processing.accept("b");
+        processing.accept("c");
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"))));
+        assertThat(processing.getQueueDepth(), is(1));
+
+        // The rest is left to the timer
+        runTimerAfterDelay();
+        assertThat(batches, is(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c"))));
+    }
+
+    @Test
+    public void joinReturnsQueuedObjects() {
+        DelayedBatchProcessing<String> processing = new DelayedBatchProcessing<>(1, 1, 2, null, batches::add,
+                executor);
+        processing.accept("a");
+        assertThat(processing.join(), is(Arrays.asList("a")));
+        assertThat(processing.getQueueDepth(), is(0));
+        verify(future).cancel(false);
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxAgeNotSmallerThanDelay() {
+        new DelayedBatchProcessing<>(10, 5, 1, null, batches::add, executor);
+    }
+}
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttMessageSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.openhab.binding.mqtt.generic.mapping.SubscribeFieldToMQTTtopic;
+
+/**
+ * Tests the {@link TopicSubtreeCache} class.
+ *
+ * @author agent - Initial contribution
+ */
+public class TopicSubtreeCacheTests {
+    @Mock
+    private MqttBrokerConnection connection;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+
+    @Mock
+    private MqttMessageSubscriber subscriber;
+
+    private final byte[] payload = "3.0".getBytes(StandardCharsets.UTF_8);
+
+    public static class Attributes {
+        public String homie = "";
+        public String name = "";
+    }
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).subscribe(any(), any());
+        doReturn(CompletableFuture.completedFuture(true)).when(connection).unsubscribe(any(), any());
+        doReturn(scheduledFuture).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private static void assign(Attributes attributes, Field field, Object value) {
+        try {
+            field.set(attributes, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs the settle check of the cache. The cache schedules it in nanoseconds, field timeouts are scheduled in
+     * milliseconds. With a quiet period of 0 the check settles the tree when it runs.
+     */
+    private void settle() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), anyLong(), eq(TimeUnit.NANOSECONDS));
+        captor.getValue().run();
+    }
+
+    private Runnable fieldTimeout() {
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        return captor.getValue();
+    }
+
+    @Test
+    public void singleSubscriptionForTheTree() {
+        TopicSubtreeCache cache = new TopicSubtreeCache("homie/device");
+        cache.start(connection, scheduler, 1, 100);
+        verify(connection).subscribe(eq("homie/device/#"), eq(cache));
+
+        assertTrue(cache.covers("homie/device/$homie"));
+        assertFalse(cache.covers("homie/device"));
+        assertFalse(cache.covers("homie/device2/$homie"));
+
+        // A retained message received before subscribing is delivered on subscribe
+        cache.processMessage("homie/device/$homie", payload);
+        cache.subscribe("homie/device/$homie", subscriber);
+        verify(subscriber).processMessage(eq("homie/device/$homie"), eq(payload));
+
+        cache.processMessage("homie/device/$name", payload);
+        verify(subscriber, never()).processMessage(eq("homie/device/$name"), any());
+
+        cache.unsubscribe("homie/device/$homie", subscriber);
+        cache.processMessage("homie/device/$homie", payload);
+        verify(subscriber, times(1)).processMessage(any(), any());
+
+        cache.stop();
+        verify(connection).unsubscribe(eq("homie/device/#"), eq(cache));
+        assertNull(cache.getPayload("homie/device/$name"));
+        verify(connection, times(1)).subscribe(any(), any());
+    }
+
+    @Test
+    public void missingAttributeResolvedWhenSettled() throws Exception {
+        TopicSubtreeCache cache = new TopicSubtreeCache("homie/device");
+        cache.start(connection, scheduler, 0, 100);
+        cache.processMessage("homie/device/$homie", payload);
+
+        Attributes attributes = new Attributes();
+        SubscribeFieldToMQTTtopic homie = new SubscribeFieldToMQTTtopic(scheduler,
+                Attributes.class.getField("homie"), (field, value) -> assign(attributes, field, value),
+                "homie/device/$homie", true);
+        homie.setSubtreeCache(cache);
+        SubscribeFieldToMQTTtopic name = new SubscribeFieldToMQTTtopic(scheduler,
+                Attributes.class.getField("name"), (field, value) -> assign(attributes, field, value),
+                "homie/device/$name", false);
+        name.setSubtreeCache(cache);
+
+        assertTrue(homie.subscribeAndReceive(connection, 1000).isDone());
+        assertThat(attributes.homie, is("3.0"));
+        CompletableFuture<?> nameFuture = name.subscribeAndReceive(connection, 1000);
+        assertFalse(nameFuture.isDone());
+
+        assertFalse(cache.isSettled());
+        settle();
+        assertTrue(cache.isSettled());
+        // Not retained: no need to wait for the timeout
+        assertTrue(nameFuture.isDone());
+        verify(connection, times(1)).subscribe(any(), any());
+    }
+
+    @Test
+    public void missingMandatoryAttributeWaitsForTimeout() throws Exception {
+        TopicSubtreeCache cache = new TopicSubtreeCache("homie/device");
+        cache.start(connection, scheduler, 0, 100);
+
+        Attributes attributes = new Attributes();
+        SubscribeFieldToMQTTtopic homie = new SubscribeFieldToMQTTtopic(scheduler,
+                Attributes.class.getField("homie"), (field, value) -> assign(attributes, field, value),
+                "homie/device/$homie", true);
+        homie.setSubtreeCache(cache);
+        CompletableFuture<?> homieFuture = homie.subscribeAndReceive(connection, 1000);
+
+        settle();
+        assertTrue(cache.isSettled());
+        assertFalse(homieFuture.isDone());
+
+        // Published after the tree settled, but within the timeout
+        cache.processMessage("homie/device/$homie", payload);
+        assertTrue(homieFuture.isDone());
+        assertThat(attributes.homie, is("3.0"));
+    }
+
+    @Test
+    public void missingMandatoryAttributeFailsOnTimeout() throws Exception {
+        TopicSubtreeCache cache = new TopicSubtreeCache("homie/device");
+        cache.start(connection, scheduler, 0, 100);
+
+        Attributes attributes = new Attributes();
+        SubscribeFieldToMQTTtopic homie = new SubscribeFieldToMQTTtopic(scheduler,
+                Attributes.class.getField("homie"), (field, value) -> assign(attributes, field, value),
+                "homie/device/$homie", true);
+        homie.setSubtreeCache(cache);
+        CompletableFuture<?> homieFuture = homie.subscribeAndReceive(connection, 1000);
+
+        settle();
+        assertFalse(homieFuture.isDone());
+        fieldTimeout().run();
+        assertTrue(homieFuture.isCompletedExceptionally());
+    }
+
+    @Test
+    public void whenSettledAfterStopRunsImmediately() {
+        TopicSubtreeCache cache = new TopicSubtreeCache("homie/device");
+        cache.start(connection, scheduler, 0, 100);
+        Runnable pending = mock(Runnable.class);
+        cache.whenSettled(pending);
+        verify(pending, never()).run();
+
+        cache.stop();
+        verify(pending).run();
+
+        Runnable late = mock(Runnable.class);
+        cache.whenSettled(late);
+        verify(late).run();
+
+        // A settle check that was already running does not settle the stopped tree
+        settle();
+        assertFalse(cache.isSettled());
+    }
+}
@@ -13,9 +13,14 @@
 package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -38,6 +43,9 @@ import com.google.gson.Gson;
 /**
  * Responsible for subscribing to the HomeAssistant MQTT components wildcard topic, either
  * in a time limited discovery mode or as a background discovery.
+ * <p>
+ * Component configurations are parsed on the given parse executor. A configuration that is received again unchanged
+ * (for example re-announced or received as retained message again) is not parsed another time.
  *
  * @author David Graeff - Initial contribution
  */
@@ -49,6 +57,9 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     private final ChannelStateUpdateListener updateListener;
     private final AvailabilityTracker tracker;
     private final TransformationServiceProvider transformationServiceProvider;
+    private final Executor parseExecutor;
+    // Hash of the last received configuration per config topic
+    private final Map<String, Long> configHashes = new ConcurrentHashMap<>();
 
     protected final CompletableFuture<@Nullable Void> discoverFinishedFuture = new CompletableFuture<>();
     private final Gson gson;
@@ -76,7 +87,22 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     public DiscoverComponents(ThingUID thingUID, ScheduledExecutorService scheduler,
             ChannelStateUpdateListener channelStateUpdateListener, AvailabilityTracker tracker, Gson gson,
             TransformationServiceProvider transformationServiceProvider) {
+        this(thingUID, scheduler, scheduler, channelStateUpdateListener, tracker, gson, transformationServiceProvider);
+    }
+
+    /**
+     * Create a new discovery object.
+     *
+     * @param thingUID The Thing UID to perform the discovery for.
+     * @param scheduler A scheduler for timeouts
+     * @param parseExecutor The executor to parse component configurations on
+     * @param channelStateUpdateListener Channel update listener. Usually the handler.
+     */
+    public DiscoverComponents(ThingUID thingUID, ScheduledExecutorService scheduler, Executor parseExecutor,
+            ChannelStateUpdateListener channelStateUpdateListener, AvailabilityTracker tracker, Gson gson,
+            TransformationServiceProvider transformationServiceProvider) {
         this.thingUID = thingUID;
+        this.parseExecutor = parseExecutor;
         this.scheduler = scheduler;
         this.updateListener = channelStateUpdateListener;
         this.gson = gson;
@@ -90,8 +116,28 @@ public class DiscoverComponents implements MqttMessageSubscriber {
             return;
         }
 
+        final long hash = configHash(payload);
+        final Long previousHash = configHashes.put(topic, hash);
+        if (previousHash != null && previousHash == hash) {
+            logger.trace("Configuration on {} unchanged", topic);
+            return;
+        }
+
+        try {
+            parseExecutor.execute(() -> parseComponent(topic, payload, hash));
+        } catch (RejectedExecutionException e) {
+            configHashes.remove(topic, hash);
+            logger.debug("Could not parse configuration on {}: {}", topic, e.getMessage());
+        }
+    }
+
+    private void parseComponent(String topic, byte[] payload, long hash) {
+        if (isSuperseded(topic, hash)) {
+            return;
+        }
+
         HaID haID = new HaID(topic);
-        String config = new String(payload);
+        String config = new String(payload, StandardCharsets.UTF_8);
 
         AbstractComponent<?> component = null;
 
@@ -103,7 +149,9 @@ public class DiscoverComponents implements MqttMessageSubscriber {
             component.setConfigSeen();
 
             logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
-            if (discoveredListener != null) {
+            // A newer configuration might have been parsed concurrently. Do not overwrite it with this one.
+            final @Nullable ComponentDiscovered discoveredListener = this.discoveredListener;
+            if (discoveredListener != null && !isSuperseded(topic, hash)) {
                 discoveredListener.componentDiscovered(haID, component);
             }
         } else {
@@ -111,6 +159,27 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         }
     }
 
+    private boolean isSuperseded(String topic, long hash) {
+        final Long latestHash = configHashes.get(topic);
+        return latestHash == null || latestHash != hash;
+    }
+
+    /**
+     * Compute a 64 bit FNV-1a hash of a configuration payload. Used to detect unchanged configurations without
+     * decoding and parsing them.
+     *
+     * @param payload The raw configuration
+     * @return The hash
+     */
+    public static long configHash(byte[] payload) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : payload) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
     /**
      * Start a components discovery.
      *
@@ -132,6 +201,8 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     public CompletableFuture<@Nullable Void> startDiscovery(MqttBrokerConnection connection, int discoverTime,
             Set<HaID> topicDescriptions, ComponentDiscovered componentsDiscoveredListener) {
         this.topics = topicDescriptions.stream().map(id -> id.getTopic("config")).collect(Collectors.toSet());
+        // Retained configurations are received again, process all of them
+        this.configHashes.clear();
         this.discoverTime = discoverTime;
         this.discoveredListener = componentsDiscoveredListener;
         this.connectionRef = new WeakReference<>(connection);
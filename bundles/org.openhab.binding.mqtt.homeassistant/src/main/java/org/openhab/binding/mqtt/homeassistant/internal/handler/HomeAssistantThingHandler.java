@@ -24,6 +24,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
@@ -79,6 +80,13 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         implements ComponentDiscovered, Consumer<List<AbstractComponent<?>>> {
     public static final String AVAILABILITY_CHANNEL = "availability";
 
+    /** Maximum number of discovered components processed at once */
+    private static final int MAX_DISCOVERY_BATCH_SIZE = 50;
+    /** A storm of (retained) discovery messages holds back components at most this multiple of the attribute timeout */
+    private static final int MAX_DISCOVERY_BATCH_AGE_FACTOR = 4;
+    /** Shared, bounded thread pool for parsing component configurations of all things */
+    private static final String CONFIG_PARSER_POOL_NAME = "mqtt-homeassistant-config";
+
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantThingHandler.class);
 
     protected final MqttChannelTypeProvider channelTypeProvider;
@@ -113,8 +121,12 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         this.channelTypeProvider = channelTypeProvider;
         this.transformationServiceProvider = transformationServiceProvider;
         this.attributeReceiveTimeout = attributeReceiveTimeout;
-        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout, this, scheduler);
-        this.discoverComponents = new DiscoverComponents(thing.getUID(), scheduler, this, this, gson,
+        // A re-announced component replaces the queued one, only the latest configuration is processed
+        this.delayedProcessing = new DelayedBatchProcessing<>(attributeReceiveTimeout,
+                attributeReceiveTimeout * MAX_DISCOVERY_BATCH_AGE_FACTOR, MAX_DISCOVERY_BATCH_SIZE,
+                component -> component.uid().getId(), this, scheduler);
+        this.discoverComponents = new DiscoverComponents(thing.getUID(), scheduler,
+                ThreadPoolManager.getPool(CONFIG_PARSER_POOL_NAME), this, this, gson,
                 this.transformationServiceProvider);
     }
 
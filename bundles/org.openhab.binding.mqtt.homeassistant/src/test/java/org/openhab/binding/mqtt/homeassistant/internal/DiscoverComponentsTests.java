@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openhab.binding.mqtt.generic.AvailabilityTracker;
+import org.openhab.binding.mqtt.generic.ChannelStateUpdateListener;
+import org.openhab.binding.mqtt.generic.TransformationServiceProvider;
+import org.openhab.binding.mqtt.homeassistant.internal.DiscoverComponents.ComponentDiscovered;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * Tests the {@link DiscoverComponents} class with a corpus of recorded retained configuration messages.
+ *
+ * @author agent - Initial contribution
+ */
+public class DiscoverComponentsTests {
+    private static final String CORPUS = "retainedConfigs.txt";
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+
+    @Mock
+    private ChannelStateUpdateListener updateListener;
+
+    @Mock
+    private AvailabilityTracker tracker;
+
+    @Mock
+    private TransformationServiceProvider transformationServiceProvider;
+
+    @Mock
+    private ComponentDiscovered discoveredListener;
+
+    private final List<Runnable> parseTasks = new ArrayList<>();
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new ChannelConfigurationTypeAdapterFactory()).create();
+    private DiscoverComponents discover;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        discover = new DiscoverComponents(new ThingUID("mqtt:homeassistant_zigbee:broker:zigbee"), scheduler,
+                parseTasks::add, updateListener, tracker, gson, transformationServiceProvider);
+        discover.discoveredListener = discoveredListener;
+    }
+
+    /**
+     * Read the corpus, one "topic payload" pair per line.
+     */
+    private static Map<String, byte[]> readCorpus() {
+        Map<String, byte[]> messages = new TreeMap<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                DiscoverComponentsTests.class.getResourceAsStream(CORPUS), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                messages.put(line.substring(0, separator),
+                        line.substring(separator + 1).getBytes(StandardCharsets.UTF_8));
+            }
+            return messages;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void replay(Map<String, byte[]> messages) {
+        messages.forEach((topic, payload) -> discover.processMessage(topic, payload.clone()));
+    }
+
+    private void runParseTasks() {
+        List<Runnable> tasks = new ArrayList<>(parseTasks);
+        parseTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    public void unchangedConfigurationsAreNotParsedAgain() {
+        Map<String, byte[]> corpus = readCorpus();
+        replay(corpus);
+        assertThat(parseTasks.size(), is(corpus.size()));
+        runParseTasks();
+        verify(discoveredListener, times(corpus.size())).componentDiscovered(any(), any());
+
+        // The broker delivers the same retained messages again
+        replay(corpus);
+        assertThat(parseTasks.size(), is(0));
+
+        // A changed configuration is parsed again
+        String topic = "homeassistant/sensor/0x00158d0002c3d4e5/battery/config";
+        String changed = new String(corpus.get(topic), StandardCharsets.UTF_8).replace("battery\",", "battery2\",");
+        discover.processMessage(topic, changed.getBytes(StandardCharsets.UTF_8));
+        runParseTasks();
+        verify(discoveredListener, times(corpus.size() + 1)).componentDiscovered(any(), any());
+    }
+
+    @Test
+    public void supersededConfigurationIsNotDelivered() {
+        Map<String, byte[]> corpus = readCorpus();
+        String topic = "homeassistant/switch/0x00158d0004e5f6a7/switch/config";
+        String first = new String(corpus.get(topic), StandardCharsets.UTF_8);
+        discover.processMessage(topic, first.getBytes(StandardCharsets.UTF_8));
+        discover.processMessage(topic, first.replace("plug_office_switch", "office").getBytes(StandardCharsets.UTF_8));
+        assertThat(parseTasks.size(), is(2));
+
+        runParseTasks();
+        verify(discoveredListener, times(1)).componentDiscovered(any(), any());
+    }
+}
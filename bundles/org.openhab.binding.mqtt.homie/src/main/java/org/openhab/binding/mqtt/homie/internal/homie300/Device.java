@@ -29,6 +29,7 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.binding.mqtt.generic.ChannelConfig;
 import org.openhab.binding.mqtt.generic.mapping.AbstractMqttAttributeClass;
 import org.openhab.binding.mqtt.generic.tools.ChildMap;
+import org.openhab.binding.mqtt.generic.tools.TopicSubtreeCache;
 import org.openhab.binding.mqtt.homie.internal.handler.HomieThingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,11 +48,17 @@ import org.slf4j.LoggerFactory;
  * });
  * </pre>
  *
+ * All topics of the device are received with a single wildcard subscription ("homie/device/#"), see
+ * {@link TopicSubtreeCache}. Nodes and properties are created as soon as their attributes are found in there, instead
+ * of subscribing and waiting for each attribute topic one after the other.
+ *
  * @author David Graeff - Initial contribution
  */
 @NonNullByDefault
 public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private final Logger logger = LoggerFactory.getLogger(Device.class);
+    // Retained attributes are considered complete if no message arrived for this time
+    private static final int SUBTREE_QUIET_PERIOD_MS = 100;
     // The device attributes, statistics and nodes of this device
     public final DeviceAttributes attributes;
     public final ChildMap<Node> nodes;
@@ -64,6 +71,7 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
     private String topic = "";
     public String deviceID = "";
     private boolean initialized = false;
+    private @Nullable TopicSubtreeCache subtreeCache;
 
     /**
      * Creates a Homie Device structure. It consists of device attributes, device statistics and nodes.
@@ -113,7 +121,25 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
             throw new IllegalStateException("You must call initialize()!");
         }
 
-        return attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout)
+        final TopicSubtreeCache previousCache = this.subtreeCache;
+        if (previousCache != null) {
+            previousCache.stop();
+        }
+        final TopicSubtreeCache subtreeCache = new TopicSubtreeCache(topic);
+        this.subtreeCache = subtreeCache;
+        attributes.setSubtreeCache(subtreeCache);
+
+        return subtreeCache.start(connection, scheduler, Math.min(SUBTREE_QUIET_PERIOD_MS, timeout), timeout)
+                .handle((b, e) -> {
+                    if (e != null) {
+                        // Fall back to subscribing each topic
+                        logger.debug("Could not subscribe to the topic tree of device {}", deviceID, e);
+                        this.subtreeCache = null;
+                        attributes.setSubtreeCache(null);
+                    }
+                    return b;
+                })
+                .thenCompose(b -> attributes.subscribeAndReceive(connection, scheduler, topic, this, timeout))
                 // On success, create all nodes and tell the handler about the ready state
                 .thenCompose(b -> attributesReceived(connection, scheduler, timeout))
                 // No matter if values have been received or not -> the subscriptions have been performed
@@ -174,8 +200,14 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
      * Unsubscribe from everything.
      */
     public CompletableFuture<@Nullable Void> stop() {
-        return attributes.unsubscribe().thenCompose(
-                b -> CompletableFuture.allOf(nodes.stream().map(Node::stop).toArray(CompletableFuture[]::new)));
+        final TopicSubtreeCache subtreeCache = this.subtreeCache;
+        this.subtreeCache = null;
+        return attributes.unsubscribe()
+                .thenCompose(b -> CompletableFuture
+                        .allOf(nodes.stream().map(Node::stop).toArray(CompletableFuture[]::new)))
+                .thenCompose(b -> subtreeCache != null ? subtreeCache.stop() : CompletableFuture.completedFuture(true))
+                .thenAccept(b -> {
+                });
     }
 
     /**
@@ -275,8 +307,10 @@ public class Device implements AbstractMqttAttributeClass.AttributeChanged {
 
     CompletableFuture<@Nullable Void> applyNodes(MqttBrokerConnection connection, ScheduledExecutorService scheduler,
             int timeout) {
-        return nodes.apply(attributes.nodes, node -> node.subscribe(connection, scheduler, timeout), this::createNode,
-                this::notifyNodeRemoved).exceptionally(e -> {
+        return nodes.apply(attributes.nodes, node -> {
+            node.attributes.setSubtreeCache(attributes.getSubtreeCache());
+            return node.subscribe(connection, scheduler, timeout);
+        }, this::createNode, this::notifyNodeRemoved).exceptionally(e -> {
                     logger.warn("Could not subscribe", e);
                     return null;
                 });
@@ -266,6 +266,7 @@ public class Property implements AttributeChanged {
         }
         // Make sure we set the callback again which might have been nulled during an stop
         channelState.setChannelStateUpdateListener(this.callback);
+        channelState.setSubtreeCache(attributes.getSubtreeCache());
         return channelState.start(connection, scheduler, timeout);
     }
 
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker;
+
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Service providing traffic statistics of the embedded MQTT broker.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public interface EmbeddedBrokerMetrics {
+
+    /**
+     * Get the traffic per topic prefix. The prefix consists of the first topic levels, for example
+     * "homie/device1" for "homie/device1/node/property". The amount of prefixes is limited, the traffic of further
+     * prefixes is summed up under "(other)".
+     *
+     * @return statistics per topic prefix
+     */
+    public Map<String, TrafficMetrics> getTopicPrefixMetrics();
+
+    /**
+     * Get the traffic per publishing client. The statistics of a client are discarded when it disconnects.
+     *
+     * @return statistics per client ID
+     */
+    public Map<String, TrafficMetrics> getClientMetrics();
+
+    /**
+     * Return the amount of retained topics held by the broker.
+     */
+    public int getRetainedMessageCount();
+
+    /**
+     * Return the sum of all retained payload sizes in bytes.
+     */
+    public long getRetainedPayloadBytes();
+
+    /**
+     * Return the amount of active subscriptions of all clients.
+     */
+    public int getSubscriptionCount();
+
+    /**
+     * Return the amount of connected clients.
+     */
+    public int getConnectedClientCount();
+
+    /**
+     * Discard all collected traffic statistics.
+     */
+    public void resetMetrics();
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Message and byte counters of a topic prefix or a client of the embedded broker.
+ * <p>
+ * Besides the totals, the published message rate of the last completed {@link #RATE_INTERVAL_MILLIS} interval is
+ * available, which is what to look at to find a client that currently floods the broker.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TrafficMetrics {
+    public static final long RATE_INTERVAL_MILLIS = 10000;
+
+    private final long createdMillis = System.currentTimeMillis();
+
+    private final AtomicLong messagesIn = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong messagesOut = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+
+    private long intervalStartMillis = createdMillis;
+    private long intervalMessages = 0;
+    private double recentMessagesPerSecond = 0;
+
+    /**
+     * Record a message published to the broker.
+     *
+     * @param payloadSize The payload size in bytes
+     */
+    public void recordIn(int payloadSize) {
+        messagesIn.incrementAndGet();
+        bytesIn.addAndGet(payloadSize);
+        synchronized (this) {
+            advanceInterval(System.currentTimeMillis());
+            ++intervalMessages;
+        }
+    }
+
+    /**
+     * Record a message delivered by the broker to subscribers.
+     *
+     * @param payloadSize The payload size in bytes
+     * @param receivers The amount of subscriptions the message has been delivered to
+     */
+    public void recordOut(int payloadSize, int receivers) {
+        messagesOut.addAndGet(receivers);
+        bytesOut.addAndGet((long) payloadSize * receivers);
+    }
+
+    private void advanceInterval(long now) {
+        long elapsed = now - intervalStartMillis;
+        if (elapsed < RATE_INTERVAL_MILLIS) {
+            return;
+        }
+        // If more than one interval passed without a message, the last completed interval was silent
+        recentMessagesPerSecond = elapsed < 2 * RATE_INTERVAL_MILLIS ? intervalMessages * 1000.0 / elapsed : 0;
+        intervalMessages = 0;
+        intervalStartMillis = now;
+    }
+
+    public long getMessagesIn() {
+        return messagesIn.get();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    public long getMessagesOut() {
+        return messagesOut.get();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.get();
+    }
+
+    /**
+     * Get the published messages per second since the metrics were created.
+     */
+    public double getMessagesPerSecond() {
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - createdMillis);
+        return messagesIn.get() * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Get the published messages per second of the last completed interval.
+     */
+    public synchronized double getRecentMessagesPerSecond() {
+        advanceInterval(System.currentTimeMillis());
+        return recentMessagesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{in=%d msgs/%d bytes, out=%d msgs/%d bytes, msgs/s=%.2f, recent msgs/s=%.2f}",
+                getMessagesIn(), getBytesIn(), getMessagesOut(), getBytesOut(), getMessagesPerSecond(),
+                getRecentMessagesPerSecond());
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.mqttembeddedbroker.EmbeddedBrokerMetrics;
+import org.openhab.io.mqttembeddedbroker.TrafficMetrics;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for inspecting the traffic of the embedded MQTT broker
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+@NonNullByDefault
+public class EmbeddedBrokerConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_METRICS = "metrics";
+    private static final String SUBCMD_RESET = "reset";
+    private static final int DEFAULT_TOP_ENTRIES = 10;
+
+    private final EmbeddedBrokerMetrics metrics;
+
+    @Activate
+    public EmbeddedBrokerConsoleCommandExtension(final @Reference EmbeddedBrokerMetrics metrics) {
+        super("mqttbroker", "Inspect the embedded MQTT broker.");
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0) {
+            String subCommand = args[0];
+            switch (subCommand) {
+                case SUBCMD_METRICS:
+                    int top = DEFAULT_TOP_ENTRIES;
+                    if (args.length > 1) {
+                        try {
+                            top = Integer.parseInt(args[1]);
+                        } catch (NumberFormatException e) {
+                            console.println("Invalid number of entries '" + args[1] + "'");
+                            return;
+                        }
+                    }
+                    printMetrics(console, top);
+                    break;
+
+                case SUBCMD_RESET:
+                    metrics.resetMetrics();
+                    console.println("Embedded broker statistics cleared");
+                    break;
+
+                default:
+                    console.println("Unknown command '" + subCommand + "'");
+                    printUsage(console);
+                    break;
+            }
+        } else {
+            printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(
+                buildCommandUsage(SUBCMD_METRICS + " [<count>]",
+                        "lists the busiest topic prefixes and clients (default " + DEFAULT_TOP_ENTRIES + ")"),
+                buildCommandUsage(SUBCMD_RESET, "clears the traffic statistics"));
+    }
+
+    private void printMetrics(Console console, int top) {
+        console.println(String.format("connected clients: %d, subscriptions: %d, retained topics: %d (%d bytes)",
+                metrics.getConnectedClientCount(), metrics.getSubscriptionCount(), metrics.getRetainedMessageCount(),
+                metrics.getRetainedPayloadBytes()));
+        console.println("Topic prefixes:");
+        printTop(console, metrics.getTopicPrefixMetrics(), top);
+        console.println("Publishing clients:");
+        printTop(console, metrics.getClientMetrics(), top);
+    }
+
+    private void printTop(Console console, Map<String, TrafficMetrics> entries, int top) {
+        if (entries.isEmpty()) {
+            console.println("  No messages recorded");
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, TrafficMetrics> e) -> e.getValue().getRecentMessagesPerSecond())
+                        .thenComparingLong(e -> e.getValue().getMessagesIn()).reversed())
+                .limit(top).forEach(e -> console.println(String.format("  %-40s %s", e.getKey(), e.getValue())));
+    }
+}
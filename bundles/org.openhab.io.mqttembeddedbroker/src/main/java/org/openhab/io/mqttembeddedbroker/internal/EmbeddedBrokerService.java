@@ -23,8 +23,11 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -44,6 +47,8 @@ import org.eclipse.smarthome.io.transport.mqtt.MqttConnectionState;
 import org.eclipse.smarthome.io.transport.mqtt.MqttService;
 import org.eclipse.smarthome.io.transport.mqtt.MqttServiceObserver;
 import org.openhab.io.mqttembeddedbroker.Constants;
+import org.openhab.io.mqttembeddedbroker.EmbeddedBrokerMetrics;
+import org.openhab.io.mqttembeddedbroker.TrafficMetrics;
 import org.openhab.io.mqttembeddedbroker.internal.MqttEmbeddedBrokerDetectStart.MqttEmbeddedBrokerStartedListener;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -67,6 +72,9 @@ import io.moquette.interception.messages.InterceptDisconnectMessage;
 import io.moquette.interception.messages.InterceptPublishMessage;
 import io.moquette.interception.messages.InterceptSubscribeMessage;
 import io.moquette.interception.messages.InterceptUnsubscribeMessage;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.mqtt.MqttMessageBuilders;
+import io.netty.handler.codec.mqtt.MqttQoS;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 
@@ -79,18 +87,32 @@ import io.netty.handler.ssl.SslContextBuilder;
  *
  * @author David Graeff - Initial contribution
  */
-@Component(immediate = true, service = EmbeddedBrokerService.class, configurationPid = "org.eclipse.smarthome.mqttembeddedbroker", property = {
+@Component(immediate = true, service = { EmbeddedBrokerService.class,
+        EmbeddedBrokerMetrics.class }, configurationPid = "org.eclipse.smarthome.mqttembeddedbroker", property = {
         org.osgi.framework.Constants.SERVICE_PID + "=org.eclipse.smarthome.mqttembeddedbroker",
         ConfigurableService.SERVICE_PROPERTY_DESCRIPTION_URI + "=mqtt:mqttembeddedbroker",
         ConfigurableService.SERVICE_PROPERTY_CATEGORY + "=MQTT",
         ConfigurableService.SERVICE_PROPERTY_LABEL + "=MQTT Embedded Broker" })
 @NonNullByDefault
-public class EmbeddedBrokerService
-        implements ConfigurableService, MqttConnectionObserver, MqttServiceObserver, MqttEmbeddedBrokerStartedListener {
+public class EmbeddedBrokerService implements ConfigurableService, MqttConnectionObserver, MqttServiceObserver,
+        MqttEmbeddedBrokerStartedListener, EmbeddedBrokerMetrics {
+    /** Traffic of further topic prefixes is recorded under {@link #OTHER_TOPIC_PREFIXES} */
+    static final int MAX_TOPIC_PREFIXES = 1000;
+    static final String OTHER_TOPIC_PREFIXES = "(other)";
+
     private final MqttService service;
     private String persistenceFilename = "";
+    private int autosaveInterval = 30;
+    private RetainedMessageIndex retainedIndex = new RetainedMessageIndex(0);
+    private int metricsTopicLevels = 2;
+    private final SubscriptionIndex subscriptionIndex = new SubscriptionIndex();
+    private final Map<String, TrafficMetrics> topicPrefixMetrics = new ConcurrentHashMap<>();
+    private final Map<String, TrafficMetrics> clientMetrics = new ConcurrentHashMap<>();
     // private NetworkServerTls networkServerTls; //TODO wait for NetworkServerTls implementation
 
+    /**
+     * Logs client connections and collects the traffic statistics provided as {@link EmbeddedBrokerMetrics}.
+     */
     @NonNullByDefault({})
     class BrokerMetricsListenerEx implements InterceptHandler {
 
@@ -101,7 +123,9 @@ public class EmbeddedBrokerService
 
         @Override
         public Class<?>[] getInterceptedMessageTypes() {
-            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class };
+            return new Class<?>[] { InterceptConnectMessage.class, InterceptDisconnectMessage.class,
+                    InterceptConnectionLostMessage.class, InterceptPublishMessage.class,
+                    InterceptSubscribeMessage.class, InterceptUnsubscribeMessage.class };
         }
 
         @Override
@@ -111,11 +135,15 @@ public class EmbeddedBrokerService
 
         @Override
         public void onConnectionLost(InterceptConnectionLostMessage arg0) {
+            subscriptionIndex.removeClient(arg0.getClientID());
+            clientMetrics.remove(arg0.getClientID());
         }
 
         @Override
         public void onDisconnect(InterceptDisconnectMessage arg0) {
             logger.debug("MQTT Client disconnected: {}", arg0.getClientID());
+            subscriptionIndex.removeClient(arg0.getClientID());
+            clientMetrics.remove(arg0.getClientID());
         }
 
         @Override
@@ -124,6 +152,78 @@ public class EmbeddedBrokerService
 
         @Override
         public void onPublish(InterceptPublishMessage arg0) {
+            final String topic = arg0.getTopicName();
+            final int payloadSize = arg0.getPayload().readableBytes();
+            final int receivers = subscriptionIndex.getReceiverCount(topic);
+
+            TrafficMetrics prefix = prefixMetrics(topicPrefix(topic));
+            prefix.recordIn(payloadSize);
+            prefix.recordOut(payloadSize, receivers);
+            clientMetrics.computeIfAbsent(arg0.getClientID(), k -> new TrafficMetrics()).recordIn(payloadSize);
+        }
+
+        @Override
+        public void onSubscribe(InterceptSubscribeMessage arg0) {
+            subscriptionIndex.subscribe(arg0.getClientID(), arg0.getTopicFilter());
+        }
+
+        @Override
+        public void onUnsubscribe(InterceptUnsubscribeMessage arg0) {
+            subscriptionIndex.unsubscribe(arg0.getClientID(), arg0.getTopicFilter());
+        }
+    }
+
+    /**
+     * Keeps the {@link RetainedMessageIndex} in sync with the retained messages of the broker and clears the least
+     * recently updated retained topics if the configured limit is exceeded.
+     */
+    @NonNullByDefault({})
+    class RetainedMessageListener implements InterceptHandler {
+
+        @Override
+        public String getID() {
+            return "retained";
+        }
+
+        @Override
+        public Class<?>[] getInterceptedMessageTypes() {
+            return new Class<?>[] { InterceptPublishMessage.class };
+        }
+
+        @Override
+        public void onConnect(InterceptConnectMessage arg0) {
+        }
+
+        @Override
+        public void onConnectionLost(InterceptConnectionLostMessage arg0) {
+        }
+
+        @Override
+        public void onDisconnect(InterceptDisconnectMessage arg0) {
+        }
+
+        @Override
+        public void onMessageAcknowledged(InterceptAcknowledgedMessage arg0) {
+        }
+
+        @Override
+        public void onPublish(InterceptPublishMessage msg) {
+            if (!msg.isRetainFlag()) {
+                return;
+            }
+            final String topic = msg.getTopicName();
+            final int payloadSize = msg.getPayload().readableBytes();
+            // Moquette drops the retained message of a topic for an empty payload or a QoS 0 publish
+            if (payloadSize == 0 || msg.getQos() == MqttQoS.AT_MOST_ONCE) {
+                retainedIndex.remove(topic);
+                return;
+            }
+            List<String> evicted = retainedIndex.update(topic, payloadSize);
+            if (!evicted.isEmpty()) {
+                logger.debug("Retained message limit of {} reached. Clearing {} retained topics",
+                        retainedIndex.getLimit(), evicted.size());
+                evicted.forEach(EmbeddedBrokerService.this::clearRetained);
+            }
         }
 
         @Override
@@ -139,6 +239,7 @@ public class EmbeddedBrokerService
     private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerService.class);
     protected MqttEmbeddedBrokerDetectStart detectStart = new MqttEmbeddedBrokerDetectStart(this);
     protected BrokerMetricsListenerEx metrics = new BrokerMetricsListenerEx();
+    protected RetainedMessageListener retainedListener = new RetainedMessageListener();
 
     private @Nullable MqttBrokerConnection connection;
 
@@ -180,12 +281,19 @@ public class EmbeddedBrokerService
                 Path path = Paths.get(ConfigConstants.getUserDataFolder()).toAbsolutePath();
                 Files.createDirectories(path);
                 this.persistenceFilename = path.resolve(persistenceFilename).toString();
+            } else {
+                this.persistenceFilename = persistenceFilename;
             }
 
-            logger.info("Broker persistence file: {}", persistenceFilename);
+            logger.info("Broker persistence file: {}, saved every {} seconds", this.persistenceFilename,
+                    config.autosaveInterval);
         } else {
+            this.persistenceFilename = "";
             logger.info("Using in-memory persistence. No persistence file has been set!");
         }
+        autosaveInterval = Math.max(1, config.autosaveInterval);
+        retainedIndex = new RetainedMessageIndex(config.retainedMessagesLimit);
+        metricsTopicLevels = Math.max(1, config.metricsTopicLevels);
 
         // Start embedded server
         startEmbeddedServer(port, config.secure, config.username, config.password);
@@ -294,7 +402,8 @@ public class EmbeddedBrokerService
 
         if (!persistenceFilename.isEmpty()) { // Persistence: If not set, an in-memory database is used.
             properties.put(BrokerConstants.PERSISTENT_STORE_PROPERTY_NAME, persistenceFilename);
-            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, "30"); // in seconds
+            // in seconds. The store is committed asynchronously in this interval and on shutdown.
+            properties.put(BrokerConstants.AUTOSAVE_INTERVAL_PROPERTY_NAME, Integer.toString(autosaveInterval));
         }
 
         // We may provide ACL functionality at some point as well
@@ -314,6 +423,7 @@ public class EmbeddedBrokerService
         }
         this.server = server;
         server.addInterceptHandler(metrics);
+        server.addInterceptHandler(retainedListener);
         ScheduledExecutorService s = new ScheduledThreadPoolExecutor(1);
         detectStart.startBrokerStartedDetection(port, s);
     }
@@ -322,12 +432,58 @@ public class EmbeddedBrokerService
         Server server = this.server;
         if (server != null) {
             server.removeInterceptHandler(metrics);
+            server.removeInterceptHandler(retainedListener);
+            retainedIndex.clear();
+            subscriptionIndex.clear();
             detectStart.stopBrokerStartDetection();
             server.stopServer();
             this.server = null;
         }
     }
 
+    /**
+     * Returns the metrics of the given topic prefix. Once {@link #MAX_TOPIC_PREFIXES} prefixes are tracked, new
+     * prefixes share the metrics of {@link #OTHER_TOPIC_PREFIXES}.
+     */
+    TrafficMetrics prefixMetrics(String prefix) {
+        TrafficMetrics metrics = topicPrefixMetrics.get(prefix);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (topicPrefixMetrics.size() >= MAX_TOPIC_PREFIXES) {
+            prefix = OTHER_TOPIC_PREFIXES;
+        }
+        return topicPrefixMetrics.computeIfAbsent(prefix, k -> new TrafficMetrics());
+    }
+
+    /**
+     * Returns the first {@link #metricsTopicLevels} levels of the given topic.
+     */
+    String topicPrefix(String topic) {
+        int index = -1;
+        for (int level = 0; level < metricsTopicLevels; ++level) {
+            index = topic.indexOf('/', index + 1);
+            if (index < 0) {
+                return topic;
+            }
+        }
+        return topic.substring(0, index);
+    }
+
+    /**
+     * Clears the retained message of the given topic by publishing an empty retained message.
+     *
+     * @param topic The topic
+     */
+    protected void clearRetained(String topic) {
+        Server server = this.server;
+        if (server == null) {
+            return;
+        }
+        server.internalPublish(MqttMessageBuilders.publish().topicName(topic).retained(true)
+                .qos(MqttQoS.AT_LEAST_ONCE).payload(Unpooled.EMPTY_BUFFER).build(), Constants.CLIENTID);
+    }
+
     /**
      * For testing: Returns true if the embedded server confirms that the MqttBrokerConnection is connected.
      */
@@ -389,4 +545,45 @@ public class EmbeddedBrokerService
     public void setPersistenceFilename(String persistenceFilename) {
         this.persistenceFilename = persistenceFilename;
     }
+
+    public RetainedMessageIndex getRetainedMessageIndex() {
+        return retainedIndex;
+    }
+
+    @Override
+    public Map<String, TrafficMetrics> getTopicPrefixMetrics() {
+        return Collections.unmodifiableMap(topicPrefixMetrics);
+    }
+
+    @Override
+    public Map<String, TrafficMetrics> getClientMetrics() {
+        return Collections.unmodifiableMap(clientMetrics);
+    }
+
+    @Override
+    public int getRetainedMessageCount() {
+        return retainedIndex.size();
+    }
+
+    @Override
+    public long getRetainedPayloadBytes() {
+        return retainedIndex.getPayloadBytes();
+    }
+
+    @Override
+    public int getSubscriptionCount() {
+        return subscriptionIndex.getSubscriptionCount();
+    }
+
+    @Override
+    public int getConnectedClientCount() {
+        Server server = this.server;
+        return server == null ? 0 : server.listConnectedClients().size();
+    }
+
+    @Override
+    public void resetMetrics() {
+        topicPrefixMetrics.clear();
+        clientMetrics.clear();
+    }
 }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * A compact index of the retained topics held by the embedded broker. Only the topic and the payload size
+ * are kept, the payload itself stays in the broker store.
+ * <p>
+ * Topics are ordered by their last update. If a limit is set, {@link #update(String, int)} returns the least
+ * recently updated topics that exceed the limit, so that the caller can clear them in the broker.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RetainedMessageIndex {
+    private final Map<String, Integer> payloadSizes = new LinkedHashMap<>();
+    private final int limit;
+    private long payloadBytes = 0;
+
+    /**
+     * Creates a retained message index.
+     *
+     * @param limit The maximum amount of retained topics. 0 or a negative value disables the limit.
+     */
+    public RetainedMessageIndex(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Records a retained message for the given topic.
+     *
+     * @param topic The topic
+     * @param payloadSize The payload size in bytes
+     * @return The topics that have been evicted from the index to stay within the limit. May be empty.
+     */
+    public synchronized List<String> update(String topic, int payloadSize) {
+        Integer previous = payloadSizes.remove(topic);
+        if (previous != null) {
+            payloadBytes -= previous;
+        }
+        payloadSizes.put(topic, payloadSize);
+        payloadBytes += payloadSize;
+
+        if (limit <= 0 || payloadSizes.size() <= limit) {
+            return Collections.emptyList();
+        }
+
+        List<String> evicted = new ArrayList<>(payloadSizes.size() - limit);
+        Iterator<Map.Entry<String, Integer>> it = payloadSizes.entrySet().iterator();
+        while (payloadSizes.size() > limit && it.hasNext()) {
+            Map.Entry<String, Integer> entry = it.next();
+            payloadBytes -= entry.getValue();
+            evicted.add(entry.getKey());
+            it.remove();
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes the given topic, because its retained message has been cleared.
+     *
+     * @param topic The topic
+     */
+    public synchronized void remove(String topic) {
+        Integer previous = payloadSizes.remove(topic);
+        if (previous != null) {
+            payloadBytes -= previous;
+        }
+    }
+
+    public synchronized void clear() {
+        payloadSizes.clear();
+        payloadBytes = 0;
+    }
+
+    /**
+     * Return the amount of retained topics.
+     */
+    public synchronized int size() {
+        return payloadSizes.size();
+    }
+
+    /**
+     * Return the sum of all retained payload sizes in bytes.
+     */
+    public synchronized long getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -25,6 +25,9 @@ public class ServiceConfiguration {
     public @Nullable Integer port;
     public Boolean secure = false;
     public String persistenceFile = "mqttembedded.bin";
+    public Integer autosaveInterval = 30;
+    public Integer retainedMessagesLimit = 0;
+    public Integer metricsTopicLevels = 2;
 
     public @Nullable String username;
     public @Nullable String password;
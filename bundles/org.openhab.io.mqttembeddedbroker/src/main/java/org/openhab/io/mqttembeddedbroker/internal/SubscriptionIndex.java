@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Keeps track of the topic filters each client of the embedded broker subscribed to, to be able to tell how
+ * many subscriptions receive a message on a given topic.
+ * <p>
+ * The receiver count of a topic is cached until the subscriptions change, because devices usually publish
+ * to the same topics over and over again. The cache holds at most {@link #MAX_CACHED_TOPICS} topics and is
+ * dropped as a whole when full, so a client publishing to ever new topics cannot grow it without limit.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SubscriptionIndex {
+    static final int MAX_CACHED_TOPICS = 10000;
+
+    private final Map<String, Set<String>> filtersByClient = new HashMap<>();
+    private final Map<String, Integer> receiverCountCache = new ConcurrentHashMap<>();
+    private int subscriptionCount = 0;
+
+    public synchronized void subscribe(String clientId, String topicFilter) {
+        if (filtersByClient.computeIfAbsent(clientId, k -> new HashSet<>()).add(topicFilter)) {
+            ++subscriptionCount;
+            receiverCountCache.clear();
+        }
+    }
+
+    public synchronized void unsubscribe(String clientId, String topicFilter) {
+        Set<String> filters = filtersByClient.get(clientId);
+        if (filters != null && filters.remove(topicFilter)) {
+            --subscriptionCount;
+            if (filters.isEmpty()) {
+                filtersByClient.remove(clientId);
+            }
+            receiverCountCache.clear();
+        }
+    }
+
+    /**
+     * Removes all subscriptions of the given client, because it disconnected.
+     *
+     * @param clientId The client ID
+     */
+    public synchronized void removeClient(String clientId) {
+        Set<String> filters = filtersByClient.remove(clientId);
+        if (filters != null) {
+            subscriptionCount -= filters.size();
+            receiverCountCache.clear();
+        }
+    }
+
+    public synchronized void clear() {
+        filtersByClient.clear();
+        receiverCountCache.clear();
+        subscriptionCount = 0;
+    }
+
+    int getCachedTopicCount() {
+        return receiverCountCache.size();
+    }
+
+    public synchronized int getSubscriptionCount() {
+        return subscriptionCount;
+    }
+
+    /**
+     * Returns the amount of subscriptions matching the given topic.
+     *
+     * @param topic A topic without wildcards
+     */
+    public int getReceiverCount(String topic) {
+        Integer count = receiverCountCache.get(topic);
+        if (count != null) {
+            return count;
+        }
+        synchronized (this) {
+            int matches = 0;
+            for (Set<String> filters : filtersByClient.values()) {
+                for (String filter : filters) {
+                    if (matches(filter, topic)) {
+                        ++matches;
+                    }
+                }
+            }
+            if (receiverCountCache.size() >= MAX_CACHED_TOPICS) {
+                receiverCountCache.clear();
+            }
+            receiverCountCache.put(topic, matches);
+            return matches;
+        }
+    }
+
+    /**
+     * Returns true if the topic filter with the MQTT wildcards "+" and "#" matches the given topic.
+     */
+    static boolean matches(String filter, String topic) {
+        String[] filterLevels = filter.split("/", -1);
+        String[] topicLevels = topic.split("/", -1);
+        for (int i = 0; i < filterLevels.length; ++i) {
+            String level = filterLevels[i];
+            if ("#".equals(level)) {
+                return true;
+            }
+            if (i >= topicLevels.length) {
+                return false;
+            }
+            if (!"+".equals(level) && !level.equals(topicLevels[i])) {
+                return false;
+            }
+        }
+        return filterLevels.length == topicLevels.length;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection;
+import org.eclipse.smarthome.io.transport.mqtt.MqttBrokerConnection.Protocol;
+import org.eclipse.smarthome.io.transport.mqtt.MqttService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A local publish/subscribe throughput benchmark for the embedded broker. Skipped unless the system property
+ * "mqttembeddedbroker.benchmark" is set to true. The amount of publishing clients and messages per client can be
+ * set with "mqttembeddedbroker.benchmark.clients" and "mqttembeddedbroker.benchmark.messages".
+ *
+ * @author agent - Initial contribution
+ */
+public class EmbeddedBrokerThroughputTest {
+    private final Logger logger = LoggerFactory.getLogger(EmbeddedBrokerThroughputTest.class);
+
+    private final int clientCount = Integer.getInteger("mqttembeddedbroker.benchmark.clients", 20);
+    private final int messagesPerClient = Integer.getInteger("mqttembeddedbroker.benchmark.messages", 500);
+
+    private EmbeddedBrokerService subject;
+    private final List<MqttBrokerConnection> clients = new ArrayList<>();
+    private @Mock MqttService service;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(Boolean.getBoolean("mqttembeddedbroker.benchmark"));
+        MockitoAnnotations.initMocks(this);
+
+        Map<String, Object> config = new HashMap<>();
+        config.put("port", 12346);
+        config.put("secure", false);
+        config.put("persistenceFile", "");
+        subject = new EmbeddedBrokerService(service, config);
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        for (MqttBrokerConnection client : clients) {
+            client.stop().get(5, TimeUnit.SECONDS);
+        }
+        if (subject != null) {
+            subject.deactivate();
+        }
+    }
+
+    private MqttBrokerConnection startClient(String clientId) throws Exception {
+        MqttBrokerConnection client = new MqttBrokerConnection(Protocol.TCP, "127.0.0.1", 12346, false, clientId);
+        client.setQos(1);
+        assertTrue("Client " + clientId + " could not connect", client.start().get(5, TimeUnit.SECONDS));
+        clients.add(client);
+        return client;
+    }
+
+    @Test
+    public void publishSubscribeThroughput() throws Exception {
+        final int total = clientCount * messagesPerClient;
+        CountDownLatch received = new CountDownLatch(total);
+        MqttBrokerConnection subscriber = startClient("benchmark-subscriber");
+        subscriber.subscribe("benchmark/#", (topic, payload) -> received.countDown()).get(5, TimeUnit.SECONDS);
+
+        List<MqttBrokerConnection> publishers = new ArrayList<>(clientCount);
+        for (int i = 0; i < clientCount; ++i) {
+            publishers.add(startClient("benchmark-publisher-" + i));
+        }
+
+        final byte[] payload = "benchmark payload".getBytes(StandardCharsets.UTF_8);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(total);
+        long start = System.nanoTime();
+        for (int m = 0; m < messagesPerClient; ++m) {
+            for (int i = 0; i < clientCount; ++i) {
+                futures.add(publishers.get(i).publish("benchmark/" + i + "/value", payload, 1, false));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.MINUTES);
+        long published = System.nanoTime();
+        assertTrue("Not all messages received", received.await(5, TimeUnit.MINUTES));
+        long done = System.nanoTime();
+
+        logger.info("{} clients, {} messages: published {} msgs/s, received {} msgs/s", clientCount, total,
+                ratePerSecond(total, published - start), ratePerSecond(total, done - start));
+    }
+
+    private static long ratePerSecond(int messages, long nanos) {
+        return messages * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos);
+    }
+}
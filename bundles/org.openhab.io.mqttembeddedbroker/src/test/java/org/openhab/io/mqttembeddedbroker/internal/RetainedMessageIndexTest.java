@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link RetainedMessageIndex}.
+ *
+ * @author agent - Initial contribution
+ */
+public class RetainedMessageIndexTest {
+
+    @Test
+    public void unlimited() {
+        RetainedMessageIndex index = new RetainedMessageIndex(0);
+        for (int i = 0; i < 100; ++i) {
+            assertTrue(index.update("topic/" + i, 10).isEmpty());
+        }
+        assertThat(index.size(), is(100));
+        assertThat(index.getPayloadBytes(), is(1000L));
+    }
+
+    @Test
+    public void updateReplacesPayloadSize() {
+        RetainedMessageIndex index = new RetainedMessageIndex(0);
+        index.update("topic", 10);
+        index.update("topic", 4);
+        assertThat(index.size(), is(1));
+        assertThat(index.getPayloadBytes(), is(4L));
+
+        index.remove("topic");
+        assertThat(index.size(), is(0));
+        assertThat(index.getPayloadBytes(), is(0L));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUpdated() {
+        RetainedMessageIndex index = new RetainedMessageIndex(2);
+        assertTrue(index.update("a", 1).isEmpty());
+        assertTrue(index.update("b", 2).isEmpty());
+        // "a" is updated again, so "b" is now the least recently updated topic
+        assertTrue(index.update("a", 3).isEmpty());
+
+        List<String> evicted = index.update("c", 4);
+        assertThat(evicted, is(Arrays.asList("b")));
+        assertThat(index.size(), is(2));
+        assertThat(index.getPayloadBytes(), is(7L));
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.mqttembeddedbroker.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link SubscriptionIndex}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SubscriptionIndexTest {
+
+    @Test
+    public void topicFilterMatching() {
+        assertTrue(SubscriptionIndex.matches("a/b", "a/b"));
+        assertFalse(SubscriptionIndex.matches("a/b", "a/b/c"));
+        assertTrue(SubscriptionIndex.matches("a/+/c", "a/b/c"));
+        assertFalse(SubscriptionIndex.matches("a/+", "a/b/c"));
+        assertTrue(SubscriptionIndex.matches("a/#", "a/b/c"));
+        assertTrue(SubscriptionIndex.matches("a/#", "a"));
+        assertTrue(SubscriptionIndex.matches("#", "a/b"));
+        assertFalse(SubscriptionIndex.matches("b/#", "a/b"));
+    }
+
+    @Test
+    public void receiverCountFollowsSubscriptions() {
+        SubscriptionIndex index = new SubscriptionIndex();
+        index.subscribe("client1", "homie/#");
+        index.subscribe("client2", "homie/device/+");
+        index.subscribe("client2", "other/topic");
+        assertThat(index.getSubscriptionCount(), is(3));
+        assertThat(index.getReceiverCount("homie/device/state"), is(2));
+
+        index.unsubscribe("client1", "homie/#");
+        assertThat(index.getReceiverCount("homie/device/state"), is(1));
+
+        index.removeClient("client2");
+        assertThat(index.getSubscriptionCount(), is(0));
+        assertThat(index.getReceiverCount("homie/device/state"), is(0));
+    }
+
+    @Test
+    public void receiverCountCacheIsBounded() {
+        SubscriptionIndex index = new SubscriptionIndex();
+        index.subscribe("client1", "homie/#");
+        for (int i = 0; i <= SubscriptionIndex.MAX_CACHED_TOPICS; ++i) {
+            assertThat(index.getReceiverCount("homie/device" + i + "/state"), is(1));
+        }
+        assertTrue(index.getCachedTopicCount() <= SubscriptionIndex.MAX_CACHED_TOPICS);
+    }
+}
@@ -14,8 +14,6 @@ package org.openhab.io.transport.modbus;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.Optional;
 
@@ -35,6 +33,8 @@ import org.eclipse.smarthome.core.types.Command;
 @NonNullByDefault
 public class ModbusBitUtilities {
 
+    private static final BigInteger UNSIGNED_LONG_OFFSET = BigInteger.ONE.shiftLeft(64);
+
     /**
      * Read data from registers and convert the result to DecimalType
      * Interpretation of <tt>index</tt> goes as follows depending on type
@@ -111,107 +111,80 @@ public class ModbusBitUtilities {
         }
         switch (type) {
             case BIT:
-                return Optional
-                        .of(new DecimalType((registers.getRegister(index / 16).toUnsignedShort() >> (index % 16)) & 1));
+                return Optional.of(new DecimalType((registers.getUnsignedRegister(index / 16) >> (index % 16)) & 1));
             case INT8:
-                return Optional.of(new DecimalType(registers.getRegister(index / 2).getBytes()[1 - (index % 2)]));
+                return Optional
+                        .of(new DecimalType((byte) (registers.getUnsignedRegister(index / 2) >> (8 * (index % 2)))));
             case UINT8:
-                return Optional.of(new DecimalType(
-                        (registers.getRegister(index / 2).toUnsignedShort() >> (8 * (index % 2))) & 0xff));
-            case INT16: {
-                ByteBuffer buff = ByteBuffer.allocate(2);
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getShort(0)));
-            }
+                return Optional
+                        .of(new DecimalType((registers.getUnsignedRegister(index / 2) >> (8 * (index % 2))) & 0xff));
+            case INT16:
+                return Optional.of(new DecimalType((short) registers.getUnsignedRegister(index)));
             case UINT16:
-                return Optional.of(new DecimalType(registers.getRegister(index).toUnsignedShort()));
-            case INT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 3).getBytes());
+                return Optional.of(new DecimalType(registers.getUnsignedRegister(index)));
+            case INT32:
+                return Optional.of(new DecimalType(extractInt32(registers, index, index + 1)));
+            case UINT32:
+                return Optional.of(new DecimalType(extractInt32(registers, index, index + 1) & 0xffffffffL));
+            case FLOAT32:
+                return extractFloat32(registers, index, index + 1);
+            case INT64:
+                return Optional.of(new DecimalType(extractInt64(registers, index, index + 1, index + 2, index + 3)));
+            case UINT64:
                 return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
-            case INT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getInt(0)));
-            }
-            case UINT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.position(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case FLOAT32_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(4);
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                try {
-                    return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getFloat(0)));
-                } catch (NumberFormatException e) {
-                    // floating point NaN or infinity encountered
-                    return Optional.empty();
-                }
-            }
-            case INT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
-                return Optional.of(new DecimalType(buff.order(ByteOrder.BIG_ENDIAN).getLong(0)));
-            }
-            case UINT64_SWAP: {
-                ByteBuffer buff = ByteBuffer.allocate(8);
-                buff.put(registers.getRegister(index + 3).getBytes());
-                buff.put(registers.getRegister(index + 2).getBytes());
-                buff.put(registers.getRegister(index + 1).getBytes());
-                buff.put(registers.getRegister(index).getBytes());
+                        toUnsignedDecimalType(extractInt64(registers, index, index + 1, index + 2, index + 3)));
+            case INT32_SWAP:
+                return Optional.of(new DecimalType(extractInt32(registers, index + 1, index)));
+            case UINT32_SWAP:
+                return Optional.of(new DecimalType(extractInt32(registers, index + 1, index) & 0xffffffffL));
+            case FLOAT32_SWAP:
+                return extractFloat32(registers, index + 1, index);
+            case INT64_SWAP:
+                return Optional.of(new DecimalType(extractInt64(registers, index + 3, index + 2, index + 1, index)));
+            case UINT64_SWAP:
                 return Optional.of(
-                        new DecimalType(new BigDecimal(new BigInteger(1, buff.order(ByteOrder.BIG_ENDIAN).array()))));
-            }
+                        toUnsignedDecimalType(extractInt64(registers, index + 3, index + 2, index + 1, index)));
             default:
                 throw new IllegalArgumentException(type.getConfigValue());
         }
     }
 
+    /**
+     * Combine two registers to 32 bit integer, most significant register first
+     */
+    private static int extractInt32(ModbusRegisterArray registers, int hiIndex, int loIndex) {
+        return (registers.getUnsignedRegister(hiIndex) << 16) | registers.getUnsignedRegister(loIndex);
+    }
+
+    /**
+     * Combine four registers to 64 bit integer, most significant register first
+     */
+    private static long extractInt64(ModbusRegisterArray registers, int index1, int index2, int index3, int index4) {
+        return ((long) registers.getUnsignedRegister(index1) << 48)
+                | ((long) registers.getUnsignedRegister(index2) << 32)
+                | ((long) registers.getUnsignedRegister(index3) << 16) | registers.getUnsignedRegister(index4);
+    }
+
+    private static Optional<DecimalType> extractFloat32(ModbusRegisterArray registers, int hiIndex, int loIndex) {
+        float value = Float.intBitsToFloat(extractInt32(registers, hiIndex, loIndex));
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            // floating point NaN or infinity encountered
+            return Optional.empty();
+        }
+        return Optional.of(new DecimalType(value));
+    }
+
+    /**
+     * Interpret 64 bits as unsigned integer. Arbitrary precision arithmetic is only needed when the most significant
+     * bit is set.
+     */
+    private static DecimalType toUnsignedDecimalType(long bits) {
+        if (bits >= 0) {
+            return new DecimalType(bits);
+        }
+        return new DecimalType(new BigDecimal(BigInteger.valueOf(bits).add(UNSIGNED_LONG_OFFSET)));
+    }
+
     /**
      * Read data from registers and convert the result to StringType
      * Strings should start the the first byte of a register, but could
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Timing and error statistics of the operations executed with a single endpoint
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusEndpointMetrics {
+
+    private final long createdMillis = System.currentTimeMillis();
+
+    private final ModbusLatencyHistogram queueWait = new ModbusLatencyHistogram();
+    private final ModbusLatencyHistogram connection = new ModbusLatencyHistogram();
+    private final ModbusLatencyHistogram transaction = new ModbusLatencyHistogram();
+    private final ModbusLatencyHistogram callback = new ModbusLatencyHistogram();
+    private final ModbusLatencyHistogram total = new ModbusLatencyHistogram();
+
+    private final AtomicLong successCount = new AtomicLong();
+    private final Map<String, AtomicLong> errorCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Record the outcome of a single operation
+     *
+     * @param connectionMillis time spent borrowing, validating and returning connections
+     * @param transactionMillis time spent in transactions with the slave
+     * @param callbackMillis time spent in callbacks
+     * @param totalMillis total time of the operation
+     * @param error the error the operation ended with, or null if the operation succeeded
+     */
+    public void recordOperation(long connectionMillis, long transactionMillis, long callbackMillis, long totalMillis,
+            @Nullable Exception error) {
+        connection.record(connectionMillis);
+        transaction.record(transactionMillis);
+        callback.record(callbackMillis);
+        total.record(totalMillis);
+        if (error == null) {
+            successCount.incrementAndGet();
+        } else {
+            errorCounts.computeIfAbsent(error.getClass().getSimpleName(), k -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Record time a task waited for its turn with the endpoint
+     *
+     * @param waitMillis waiting time in milliseconds
+     */
+    public void recordQueueWait(long waitMillis) {
+        queueWait.record(waitMillis);
+    }
+
+    public ModbusLatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public ModbusLatencyHistogram getConnection() {
+        return connection;
+    }
+
+    public ModbusLatencyHistogram getTransaction() {
+        return transaction;
+    }
+
+    public ModbusLatencyHistogram getCallback() {
+        return callback;
+    }
+
+    public ModbusLatencyHistogram getTotal() {
+        return total;
+    }
+
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    /**
+     * Get number of failed operations by the simple class name of the error, e.g. ModbusSlaveIOException
+     *
+     * @return error counts sorted by error type
+     */
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        errorCounts.forEach((type, count) -> result.put(type, count.get()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Get number of operations per second since the metrics were created
+     *
+     * @return operation throughput
+     */
+    public double getOperationsPerSecond() {
+        long elapsedMillis = Math.max(1, System.currentTimeMillis() - createdMillis);
+        return total.getCount() * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "{operations/s=%.2f, success=%d, errors=%s, queueWait=%s, connection=%s, transaction=%s, callback=%s, total=%s}",
+                getOperationsPerSecond(), getSuccessCount(), getErrorCounts(), queueWait, connection, transaction,
+                callback, total);
+    }
+}
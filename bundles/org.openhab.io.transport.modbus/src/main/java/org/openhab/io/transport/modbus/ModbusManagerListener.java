@@ -34,4 +34,26 @@ public interface ModbusManagerListener {
     public void onEndpointPoolConfigurationSet(ModbusSlaveEndpoint endpoint,
             @Nullable EndpointPoolConfiguration configuration);
 
+    /**
+     * Called when a read or write task gets its turn to execute with the endpoint
+     *
+     * @param endpoint endpoint of the task
+     * @param task task about to execute
+     * @param waitMillis time the task waited for its turn, in milliseconds
+     * @param queueDepth number of tasks still waiting for the endpoint
+     */
+    public default void onTaskStarted(ModbusSlaveEndpoint endpoint, TaskWithEndpoint<?, ?> task, long waitMillis,
+            int queueDepth) {
+    }
+
+    /**
+     * Called when a poll task is skipped since an equal poll task is already waiting for the endpoint
+     *
+     * @param endpoint endpoint of the task
+     * @param task task that was skipped
+     * @param queueDepth number of tasks waiting for the endpoint
+     */
+    public default void onTaskSkipped(ModbusSlaveEndpoint endpoint, TaskWithEndpoint<?, ?> task, int queueDepth) {
+    }
+
 }
@@ -0,0 +1,306 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.commons.lang.builder.StandardToStringStyle;
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegister;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+
+/**
+ * {@link PollTask} reading the combined range of several poll tasks with a single Modbus transaction
+ *
+ * The response is sliced and passed to the callbacks of the original tasks, each callback receiving the data and the
+ * request of its own task. Only tasks with overlapping or adjacent ranges are combined, so the combined request never
+ * reads data items that were not requested by one of the original tasks.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CoalescedPollTask implements PollTask {
+
+    /**
+     * Maximum number of registers in a single read request, as specified by the Modbus protocol
+     */
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    /**
+     * Maximum number of coils or discrete inputs in a single read request, as specified by the Modbus protocol
+     */
+    public static final int MAX_BITS_PER_REQUEST = 2000;
+
+    private static StandardToStringStyle toStringStyle = new StandardToStringStyle();
+
+    static {
+        toStringStyle.setUseShortClassName(true);
+    }
+
+    private static final Comparator<PollTask> REQUEST_ORDER = Comparator
+            .<PollTask> comparingInt(task -> task.getRequest().getUnitID())
+            .thenComparing(task -> task.getRequest().getFunctionCode())
+            .thenComparingInt(task -> task.getRequest().getReference());
+
+    private final ModbusSlaveEndpoint endpoint;
+    private final ModbusReadRequestBlueprint request;
+    private final List<PollTask> tasks;
+    private final ModbusReadCallback callback = new FanOutCallback();
+
+    private CoalescedPollTask(ModbusSlaveEndpoint endpoint, ModbusReadRequestBlueprint request, List<PollTask> tasks) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.tasks = tasks;
+    }
+
+    /**
+     * Combine poll tasks of a single endpoint into as few poll tasks as possible
+     *
+     * Tasks are combined when they have the same unit id and function code, and their ranges overlap or are adjacent,
+     * as long as the combined range does not exceed the maximum data length of a Modbus read request.
+     *
+     * @param endpoint endpoint shared by all the tasks
+     * @param pollTasks tasks to combine
+     * @return poll tasks to execute. Tasks that could not be combined with any other task are returned as is.
+     */
+    public static List<PollTask> coalesce(ModbusSlaveEndpoint endpoint, Collection<PollTask> pollTasks) {
+        List<PollTask> sorted = new ArrayList<>(pollTasks);
+        sorted.sort(REQUEST_ORDER);
+
+        List<PollTask> result = new ArrayList<>();
+        List<PollTask> frame = new ArrayList<>();
+        int frameStart = 0;
+        int frameEnd = 0;
+        for (PollTask task : sorted) {
+            ModbusReadRequestBlueprint taskRequest = task.getRequest();
+            int start = taskRequest.getReference();
+            int end = start + taskRequest.getDataLength();
+            if (!frame.isEmpty()) {
+                ModbusReadRequestBlueprint frameRequest = frame.get(0).getRequest();
+                boolean compatible = frameRequest.getUnitID() == taskRequest.getUnitID()
+                        && frameRequest.getFunctionCode() == taskRequest.getFunctionCode();
+                if (compatible && start <= frameEnd
+                        && Math.max(frameEnd, end) - frameStart <= maxDataLength(taskRequest.getFunctionCode())) {
+                    frame.add(task);
+                    frameEnd = Math.max(frameEnd, end);
+                    continue;
+                }
+                result.add(toTask(endpoint, frame, frameStart, frameEnd));
+                frame = new ArrayList<>();
+            }
+            frame.add(task);
+            frameStart = start;
+            frameEnd = end;
+        }
+        if (!frame.isEmpty()) {
+            result.add(toTask(endpoint, frame, frameStart, frameEnd));
+        }
+        return result;
+    }
+
+    private static PollTask toTask(ModbusSlaveEndpoint endpoint, List<PollTask> frame, int start, int end) {
+        if (frame.size() == 1) {
+            return frame.get(0);
+        }
+        ModbusReadRequestBlueprint first = frame.get(0).getRequest();
+        int maxTries = frame.stream().mapToInt(PollTask::getMaxTries).max().orElse(1);
+        return new CoalescedPollTask(endpoint, new BasicModbusReadRequestBlueprint(first.getUnitID(),
+                first.getFunctionCode(), start, end - start, maxTries), frame);
+    }
+
+    private static int maxDataLength(ModbusReadFunctionCode functionCode) {
+        switch (functionCode) {
+            case READ_COILS:
+            case READ_INPUT_DISCRETES:
+                return MAX_BITS_PER_REQUEST;
+            default:
+                return MAX_REGISTERS_PER_REQUEST;
+        }
+    }
+
+    @Override
+    public ModbusSlaveEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public ModbusReadRequestBlueprint getRequest() {
+        return request;
+    }
+
+    @Override
+    public ModbusReadCallback getCallback() {
+        return callback;
+    }
+
+    /**
+     * Get the original poll tasks combined in this task
+     *
+     * @return original poll tasks
+     */
+    public List<PollTask> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, toStringStyle).append("request", request).append("endpoint", endpoint)
+                .append("tasks", tasks.size()).toString();
+    }
+
+    /**
+     * Callback passing slices of the combined response to the callbacks of the original tasks
+     */
+    private class FanOutCallback implements ModbusReadCallback {
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint combinedRequest, ModbusRegisterArray registers) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback taskCallback = task.getCallback();
+                if (taskCallback != null) {
+                    ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                    taskCallback.onRegisters(taskRequest, new RegisterArraySlice(registers,
+                            taskRequest.getReference() - request.getReference(), taskRequest.getDataLength()));
+                }
+            }
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint combinedRequest, BitArray bits) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback taskCallback = task.getCallback();
+                if (taskCallback != null) {
+                    ModbusReadRequestBlueprint taskRequest = task.getRequest();
+                    taskCallback.onBits(taskRequest, new BitArraySlice(bits,
+                            taskRequest.getReference() - request.getReference(), taskRequest.getDataLength()));
+                }
+            }
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint combinedRequest, Exception error) {
+            for (PollTask task : tasks) {
+                ModbusReadCallback taskCallback = task.getCallback();
+                if (taskCallback != null) {
+                    taskCallback.onError(task.getRequest(), error);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "FanOutCallback(tasks=" + tasks.size() + ")";
+        }
+    }
+
+    /**
+     * View to a part of {@link ModbusRegisterArray}
+     */
+    private static class RegisterArraySlice implements ModbusRegisterArray {
+        private final ModbusRegisterArray wrapped;
+        private final int offset;
+        private final int length;
+
+        RegisterArraySlice(ModbusRegisterArray wrapped, int offset, int length) {
+            this.wrapped = wrapped;
+            this.offset = offset;
+            this.length = Math.max(0, Math.min(length, wrapped.size() - offset));
+        }
+
+        @Override
+        public ModbusRegister getRegister(int index) {
+            return wrapped.getRegister(checkIndex(index) + offset);
+        }
+
+        @Override
+        public int getUnsignedRegister(int index) {
+            return wrapped.getUnsignedRegister(checkIndex(index) + offset);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        private int checkIndex(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(String.format("Index %d out of bounds (size %d)", index, length));
+            }
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            if (length == 0) {
+                return "RegisterArraySlice(<empty>)";
+            }
+            StringBuffer buffer = new StringBuffer(length * 2).append("RegisterArraySlice(");
+            return appendHexString(buffer).append(')').toString();
+        }
+    }
+
+    /**
+     * View to a part of {@link BitArray}
+     */
+    private static class BitArraySlice implements BitArray {
+        private final BitArray wrapped;
+        private final int offset;
+        private final int length;
+
+        BitArraySlice(BitArray wrapped, int offset, int length) {
+            this.wrapped = wrapped;
+            this.offset = offset;
+            this.length = Math.max(0, Math.min(length, wrapped.size() - offset));
+        }
+
+        @Override
+        public boolean getBit(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(String.format("Index %d out of bounds (size %d)", index, length));
+            }
+            return wrapped.getBit(index + offset);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return sizeAndValuesEquals(obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return toBinaryString().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "BitArraySlice(bits=" + (length == 0 ? "<empty>" : toBinaryString()) + ")";
+        }
+    }
+}
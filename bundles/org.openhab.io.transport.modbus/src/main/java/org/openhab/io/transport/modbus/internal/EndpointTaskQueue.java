@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.TaskWithEndpoint;
+import org.openhab.io.transport.modbus.WriteTask;
+
+/**
+ * Queue deciding the order in which tasks of a single endpoint get to execute
+ *
+ * By default only one task at a time is executing per endpoint. With pipelined connections, several tasks are allowed
+ * to execute concurrently, see {@link #setMaxActive(int)}. Waiting writes are always served before waiting polls, and
+ * tasks of same priority are served first-come-first-serve. A poll equal to a poll that is already waiting in the
+ * queue is not queued at all, since the waiting poll will provide the same data.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class EndpointTaskQueue {
+
+    /**
+     * Priority of the task, in order of preference
+     */
+    public enum Priority {
+        WRITE,
+        POLL;
+
+        public static Priority of(TaskWithEndpoint<?, ?> task) {
+            return task instanceof WriteTask ? WRITE : POLL;
+        }
+    }
+
+    /**
+     * Ticket representing a task in the queue
+     */
+    public static class Ticket {
+        private final TaskWithEndpoint<?, ?> task;
+        private final Priority priority;
+        private final long sequence;
+        private final long queuedMillis;
+        private long waitedMillis;
+
+        private Ticket(TaskWithEndpoint<?, ?> task, Priority priority, long sequence) {
+            this.task = task;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.queuedMillis = System.currentTimeMillis();
+        }
+
+        /**
+         * Time the task waited in the queue before it was allowed to execute
+         *
+         * @return waiting time in milliseconds
+         */
+        public long getWaitedMillis() {
+            return waitedMillis;
+        }
+    }
+
+    private static final Comparator<Ticket> TICKET_ORDER = Comparator.<Ticket, Priority> comparing(t -> t.priority)
+            .thenComparingLong(t -> t.sequence);
+
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>(TICKET_ORDER);
+    private final Set<Ticket> active = new HashSet<>();
+    private int maxActive = 1;
+    private long sequence;
+    private int users;
+
+    /**
+     * Set the number of tasks allowed to execute at the same time
+     *
+     * @param maxActive maximum number of concurrently executing tasks, at least one
+     */
+    public synchronized void setMaxActive(int maxActive) {
+        if (maxActive <= 0) {
+            throw new IllegalArgumentException("maxActive should be positive");
+        }
+        if (this.maxActive != maxActive) {
+            this.maxActive = maxActive;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Wait until the task is allowed to execute
+     *
+     * Caller must call {@link #leave(Ticket)} with the returned ticket once the task has finished.
+     *
+     * @param task task to execute
+     * @return ticket of the task, or empty if the task is a poll equal to a poll already waiting in the queue
+     * @throws InterruptedException if the thread was interrupted while waiting. The task is removed from the queue.
+     */
+    public Optional<Ticket> enter(TaskWithEndpoint<?, ?> task) throws InterruptedException {
+        Priority priority = Priority.of(task);
+        synchronized (this) {
+            if (task instanceof PollTask) {
+                for (Ticket queued : waiting) {
+                    if (queued.task.equals(task)) {
+                        return Optional.empty();
+                    }
+                }
+            }
+            Ticket ticket = new Ticket(task, priority, sequence++);
+            waiting.add(ticket);
+            try {
+                while (active.size() >= maxActive || waiting.peek() != ticket) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(ticket);
+                notifyAll();
+                throw e;
+            }
+            waiting.poll();
+            active.add(ticket);
+            if (active.size() < maxActive) {
+                // let the next waiting task in as well
+                notifyAll();
+            }
+            ticket.waitedMillis = System.currentTimeMillis() - ticket.queuedMillis;
+            return Optional.of(ticket);
+        }
+    }
+
+    /**
+     * Mark the task as finished, allowing the next task in queue to execute
+     *
+     * @param ticket ticket returned by {@link #enter(TaskWithEndpoint)}
+     */
+    public synchronized void leave(Ticket ticket) {
+        active.remove(ticket);
+        notifyAll();
+    }
+
+    /**
+     * Register a task that is about to use the queue
+     *
+     * Together with {@link #release()}, this allows the owner to drop the queue once no task of the endpoint is
+     * waiting or executing. Both should be called while the owner holds the lock of its queue lookup.
+     */
+    public synchronized void retain() {
+        users++;
+    }
+
+    /**
+     * Unregister a task previously registered with {@link #retain()}
+     *
+     * @return whether the queue is no longer used by any task
+     */
+    public synchronized boolean release() {
+        return --users <= 0;
+    }
+
+    /**
+     * Get number of tasks waiting in the queue, not including the executing tasks
+     *
+     * @return number of waiting tasks
+     */
+    public synchronized int getQueueDepth() {
+        return waiting.size();
+    }
+}
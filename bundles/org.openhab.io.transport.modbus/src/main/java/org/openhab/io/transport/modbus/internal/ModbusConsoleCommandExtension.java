@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+import org.openhab.io.transport.modbus.ModbusMetrics;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Console commands for inspecting the Modbus transport statistics
+ *
+ * @author agent - Initial contribution
+ */
+@Component(service = ConsoleCommandExtension.class)
+@NonNullByDefault
+public class ModbusConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_METRICS = "metrics";
+    private static final String SUBCMD_RESET = "reset";
+
+    private final ModbusMetrics metrics;
+
+    @Activate
+    public ModbusConsoleCommandExtension(final @Reference ModbusMetrics metrics) {
+        super("modbus", "Inspect the Modbus transport.");
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0) {
+            String subCommand = args[0];
+            switch (subCommand) {
+                case SUBCMD_METRICS:
+                    printMetrics(console);
+                    break;
+
+                case SUBCMD_RESET:
+                    metrics.resetMetrics();
+                    console.println("Modbus statistics cleared");
+                    break;
+
+                default:
+                    console.println("Unknown command '" + subCommand + "'");
+                    printUsage(console);
+                    break;
+            }
+        } else {
+            printUsage(console);
+        }
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Arrays.asList(buildCommandUsage(SUBCMD_METRICS, "lists timing and error statistics per endpoint"),
+                buildCommandUsage(SUBCMD_RESET, "clears the statistics"));
+    }
+
+    private void printMetrics(Console console) {
+        Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> endpointMetrics = metrics.getEndpointMetrics();
+        if (endpointMetrics.isEmpty()) {
+            console.println("No Modbus operations recorded");
+            return;
+        }
+        endpointMetrics.forEach((endpoint, endpointStats) -> {
+            console.println(endpoint.toString());
+            console.println(String.format("  operations/s: %.2f, successful: %d, errors: %s",
+                    endpointStats.getOperationsPerSecond(), endpointStats.getSuccessCount(),
+                    endpointStats.getErrorCounts()));
+            printHistogram(console, "queue wait", endpointStats.getQueueWait());
+            printHistogram(console, "connection", endpointStats.getConnection());
+            printHistogram(console, "transaction", endpointStats.getTransaction());
+            printHistogram(console, "callback", endpointStats.getCallback());
+            printHistogram(console, "total", endpointStats.getTotal());
+        });
+    }
+
+    private void printHistogram(Console console, String name, ModbusLatencyHistogram histogram) {
+        console.println(String.format("  %-12s %s", name + ":", histogram));
+    }
+}
@@ -13,7 +13,11 @@
 package org.openhab.io.transport.modbus.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -22,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
@@ -34,11 +39,14 @@ import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
 import org.eclipse.jdt.annotation.NonNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.common.NamedThreadFactory;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.openhab.io.transport.modbus.ModbusCallback;
 import org.openhab.io.transport.modbus.ModbusConnectionException;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
 import org.openhab.io.transport.modbus.ModbusManager;
 import org.openhab.io.transport.modbus.ModbusManagerListener;
+import org.openhab.io.transport.modbus.ModbusMetrics;
 import org.openhab.io.transport.modbus.ModbusReadCallback;
 import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
 import org.openhab.io.transport.modbus.ModbusRequestBlueprint;
@@ -57,6 +65,7 @@ import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpointVisitor;
 import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
 import org.openhab.io.transport.modbus.endpoint.ModbusUDPSlaveEndpoint;
 import org.openhab.io.transport.modbus.internal.pooling.ModbusSlaveConnectionFactoryImpl;
+import org.openhab.io.transport.modbus.internal.pooling.PipelinedTCPConnection;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -71,6 +80,7 @@ import net.wimpi.modbus.io.ModbusTransaction;
 import net.wimpi.modbus.msg.ModbusRequest;
 import net.wimpi.modbus.msg.ModbusResponse;
 import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
 
 /**
  * Main implementation of ModbusManager
@@ -81,9 +91,10 @@ import net.wimpi.modbus.net.ModbusSlaveConnection;
  *
  * @author Sami Salonen - Initial contribution
  */
-@Component(service = ModbusManager.class, immediate = true, configurationPid = "transport.modbus")
+@Component(service = { ModbusManager.class,
+        ModbusMetrics.class }, immediate = true, configurationPid = "transport.modbus")
 @NonNullByDefault
-public class ModbusManagerImpl implements ModbusManager {
+public class ModbusManagerImpl implements ModbusManager, ModbusMetrics {
 
     static class PollTaskUnregistered extends Exception {
         public PollTaskUnregistered(String msg) {
@@ -120,6 +131,44 @@ public class ModbusManagerImpl implements ModbusManager {
 
     }
 
+    /**
+     * Execute single transaction with the connection
+     *
+     * With pipelined connections, the request is sent right away even if other transactions are still waiting for
+     * their response. Otherwise the transaction is executed using the Modbus library.
+     *
+     * @param timer aggregate stop watch for performance profiling
+     * @param endpoint endpoint of the connection
+     * @param connection connection to use
+     * @param libRequest request to send
+     * @return response to the request
+     * @throws ModbusException on Modbus protocol errors
+     */
+    private ModbusResponse executeTransaction(AggregateStopWatch timer, ModbusSlaveEndpoint endpoint,
+            ModbusSlaveConnection connection, ModbusRequest libRequest) throws ModbusException {
+        AtomicReference<@Nullable ModbusResponse> response = new AtomicReference<>();
+        if (connection instanceof PipelinedTCPConnection) {
+            timer.transaction.timeRunnableWithModbusException(() -> {
+                try {
+                    response.set(((PipelinedTCPConnection) connection).execute(libRequest));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ModbusIOException("Interrupted while waiting for response");
+                }
+            });
+        } else {
+            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
+            transaction.setRequest(libRequest);
+            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
+            response.set(transaction.getResponse());
+        }
+        ModbusResponse result = response.get();
+        if (result == null) {
+            throw new ModbusIOException("No response received");
+        }
+        return result;
+    }
+
     /**
      * Check that transaction id of the response and request match
      *
@@ -195,16 +244,13 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusReadCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with request request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for read request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, operationId);
@@ -233,17 +279,14 @@ public class ModbusManagerImpl implements ModbusManager {
             ModbusWriteCallback callback = task.getCallback();
             String operationId = timer.operationId;
 
-            ModbusTransaction transaction = ModbusLibraryWrapper.createTransactionForEndpoint(endpoint, connection);
             ModbusRequest libRequest = ModbusLibraryWrapper.createRequest(request);
-            transaction.setRequest(libRequest);
 
             logger.trace("Going execute transaction with read request (FC={}): {} [operation ID {}]",
                     request.getFunctionCode(), libRequest.getHexMessage(), operationId);
 
             // Might throw ModbusIOException (I/O error) or ModbusSlaveException (explicit exception response from
             // slave)
-            timer.transaction.timeRunnableWithModbusException(() -> transaction.execute());
-            ModbusResponse response = transaction.getResponse();
+            ModbusResponse response = executeTransaction(timer, endpoint, connection, libRequest);
             logger.trace("Response for write request (FC={}, transaction ID={}): {} [operation ID {}]",
                     response.getFunctionCode(), response.getTransactionID(), response.getHexMessage(), operationId);
             checkTransactionId(response, libRequest, operationId);
@@ -295,6 +338,12 @@ public class ModbusManagerImpl implements ModbusManager {
     private static final long WARN_QUEUE_SIZE = 500;
     private static final long MONITOR_QUEUE_INTERVAL_MILLIS = 10000;
 
+    /**
+     * Configuration key for enabling coalescing of regular polls. When enabled, regular polls of the same endpoint
+     * that are due at the same time are combined into as few Modbus transactions as possible.
+     */
+    public static final String CONFIG_COALESCE_POLLS = "coalescePolls";
+
     private final PollOperation pollOperation = new PollOperation();
     private final WriteOperation writeOperation = new WriteOperation();
 
@@ -323,6 +372,32 @@ public class ModbusManagerImpl implements ModbusManager {
     @Nullable
     private volatile ScheduledFuture<?> monitorFuture;
 
+    private volatile boolean coalescePolls;
+    /**
+     * Regular polls which are due but not yet executed, per endpoint. Only used when polls are coalesced. An endpoint
+     * is removed once none of its polls is due.
+     */
+    private final Map<ModbusSlaveEndpoint, Set<PollTask>> duePollTasks = new ConcurrentHashMap<>();
+    /**
+     * Endpoints which have a flush of due polls scheduled or running
+     */
+    private final Set<ModbusSlaveEndpoint> flushingEndpoints = ConcurrentHashMap.newKeySet();
+    /**
+     * Queues deciding the execution order of tasks, per endpoint. A queue is removed once no task of the endpoint is
+     * waiting or executing, so that reconfigured or removed endpoints do not keep their queue.
+     */
+    private final Map<ModbusSlaveEndpoint, EndpointTaskQueue> endpointQueues = new ConcurrentHashMap<>();
+    /**
+     * Timing and error statistics, per endpoint
+     */
+    private final Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> endpointMetrics = new ConcurrentHashMap<>();
+    /**
+     * Shared connections of endpoints configured with more than one transaction in flight. These connections bypass
+     * the connection pool.
+     */
+    private final Map<ModbusSlaveEndpoint, PipelinedTCPConnection> pipelinedConnections = new ConcurrentHashMap<>();
+    private final ThreadFactory pipelineThreadFactory = new NamedThreadFactory("modbus-pipeline", true);
+
     private void constructConnectionPool() {
         ModbusSlaveConnectionFactoryImpl connectionFactory = new ModbusSlaveConnectionFactoryImpl();
         connectionFactory.setDefaultPoolConfigurationFactory(endpoint -> {
@@ -374,12 +449,96 @@ public class ModbusManagerImpl implements ModbusManager {
         this.connectionFactory = connectionFactory;
     }
 
+    /**
+     * Get number of transactions allowed to be outstanding at the same time with the endpoint
+     *
+     * @param endpoint endpoint to query
+     * @return window size, one when pipelining is not in use
+     */
+    private int getMaxInFlightTransactions(ModbusSlaveEndpoint endpoint) {
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        if (connectionFactory == null || !(endpoint instanceof ModbusTCPSlaveEndpoint)) {
+            return 1;
+        }
+        EndpointPoolConfiguration config = connectionFactory.getEndpointPoolConfiguration(endpoint);
+        return config == null ? 1 : Math.max(1, config.getMaxInFlightTransactions());
+    }
+
+    /**
+     * Get the shared pipelined connection of the endpoint, creating one if necessary
+     *
+     * Connection with outdated endpoint configuration is replaced. The connection is created outside of the lock of
+     * the connection map, since creating it resolves the address of the endpoint.
+     *
+     * @param endpoint endpoint of the connection
+     * @return pipelined connection, or null if the endpoint is not configured to use pipelining
+     */
+    private @Nullable PipelinedTCPConnection getPipelinedConnection(ModbusSlaveEndpoint endpoint) {
+        int maxInFlightTransactions = getMaxInFlightTransactions(endpoint);
+        ModbusSlaveConnectionFactoryImpl connectionFactory = this.connectionFactory;
+        EndpointPoolConfiguration config = connectionFactory == null ? null
+                : connectionFactory.getEndpointPoolConfiguration(endpoint);
+        if (maxInFlightTransactions <= 1 || connectionFactory == null || config == null) {
+            PipelinedTCPConnection previous = pipelinedConnections.remove(endpoint);
+            if (previous != null) {
+                previous.resetConnection();
+            }
+            return null;
+        }
+        PipelinedTCPConnection existing = pipelinedConnections.get(endpoint);
+        if (existing != null && existing.getConfiguration().equals(config)) {
+            return existing;
+        }
+
+        PipelinedTCPConnection created;
+        try {
+            ModbusSlaveConnection connection = connectionFactory.create(endpoint);
+            if (!(connection instanceof TCPMasterConnection)) {
+                return null;
+            }
+            created = new PipelinedTCPConnection((ModbusTCPSlaveEndpoint) endpoint, (TCPMasterConnection) connection,
+                    config, pipelineThreadFactory);
+        } catch (Exception e) {
+            logger.warn("Error creating pipelined connection for endpoint {}. Error was: {} {}", endpoint,
+                    e.getClass().getName(), e.getMessage());
+            return null;
+        }
+        AtomicReference<@Nullable PipelinedTCPConnection> replaced = new AtomicReference<>();
+        PipelinedTCPConnection current = pipelinedConnections.compute(endpoint, (key, previous) -> {
+            if (previous != null && previous.getConfiguration().equals(config)) {
+                // created concurrently by another task
+                return previous;
+            }
+            replaced.set(previous);
+            return created;
+        });
+        PipelinedTCPConnection previous = replaced.get();
+        if (previous != null) {
+            previous.resetConnection();
+        }
+        return current;
+    }
+
     private Optional<ModbusSlaveConnection> borrowConnection(ModbusSlaveEndpoint endpoint) {
         Optional<ModbusSlaveConnection> connection = Optional.empty();
         KeyedObjectPool<ModbusSlaveEndpoint, ModbusSlaveConnection> pool = connectionPool;
         if (pool == null) {
             return connection;
         }
+        if (endpoint instanceof ModbusTCPSlaveEndpoint) {
+            PipelinedTCPConnection pipelined = getPipelinedConnection(endpoint);
+            if (pipelined != null) {
+                try {
+                    pipelined.connect();
+                    return Optional.of(pipelined);
+                } catch (Exception e) {
+                    logger.warn("Error connecting pipelined connection for endpoint {}. Error was: {} {}", endpoint,
+                            e.getClass().getName(), e.getMessage());
+                    pipelined.resetConnection();
+                    return connection;
+                }
+            }
+        }
         long start = System.currentTimeMillis();
         try {
             connection = Optional.ofNullable(pool.borrowObject(endpoint));
@@ -408,6 +567,11 @@ public class ModbusManagerImpl implements ModbusManager {
         }
         long start = System.currentTimeMillis();
         connection.ifPresent(con -> {
+            if (con instanceof PipelinedTCPConnection) {
+                // Shared connection, kept open for the other transactions in flight. A transaction that timed out or
+                // was interrupted only abandoned its own response, socket errors reset the connection already.
+                return;
+            }
             try {
                 pool.invalidateObject(endpoint, con);
             } catch (Exception e) {
@@ -426,6 +590,10 @@ public class ModbusManagerImpl implements ModbusManager {
         }
         long start = System.currentTimeMillis();
         connection.ifPresent(con -> {
+            if (con instanceof PipelinedTCPConnection) {
+                // shared connection, kept open
+                return;
+            }
             try {
                 pool.returnObject(endpoint, con);
                 logger.trace("returned connection to pool for endpoint {}", endpoint);
@@ -532,12 +700,68 @@ public class ModbusManagerImpl implements ModbusManager {
      *
      * With some other connection types, the operation is retried without reseting the connection type.
      *
+     * Tasks of the same endpoint wait for their turn in a {@link EndpointTaskQueue}: writes are executed before
+     * waiting polls, and polls equal to an already waiting poll are skipped. With pipelined TCP endpoints, as many
+     * tasks as there are transactions allowed in flight execute at the same time.
+     *
      * @param task
      * @param oneOffTask
      * @param operation
      */
     private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void executeOperation(
             @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
+        ModbusSlaveEndpoint endpoint = task.getEndpoint();
+        EndpointTaskQueue queue = endpointQueues.compute(endpoint, (key, existing) -> {
+            EndpointTaskQueue endpointQueue = existing == null ? new EndpointTaskQueue() : existing;
+            endpointQueue.retain();
+            return endpointQueue;
+        });
+        try {
+            queue.setMaxActive(getMaxInFlightTransactions(endpoint));
+            Optional<EndpointTaskQueue.Ticket> ticket;
+            try {
+                ticket = queue.enter(task);
+            } catch (InterruptedException e) {
+                // keep the flag, so that the pool thread can be shut down
+                Thread.currentThread().interrupt();
+                logger.warn("Task was canceled while waiting for its turn -- not executing task {}", task);
+                return;
+            }
+            if (!ticket.isPresent()) {
+                int queueDepth = queue.getQueueDepth();
+                logger.debug("Equal poll task already waiting for endpoint {}, skipping {}", endpoint, task);
+                for (ModbusManagerListener listener : listeners) {
+                    listener.onTaskSkipped(endpoint, task, queueDepth);
+                }
+                return;
+            }
+            try {
+                long waitedMillis = ticket.get().getWaitedMillis();
+                int queueDepth = queue.getQueueDepth();
+                getMetrics(endpoint).recordQueueWait(waitedMillis);
+                logger.trace("Task {} waited {} ms in queue, {} tasks still waiting for endpoint {}", task,
+                        waitedMillis, queueDepth, endpoint);
+                for (ModbusManagerListener listener : listeners) {
+                    listener.onTaskStarted(endpoint, task, waitedMillis, queueDepth);
+                }
+                executeOperationExclusively(task, oneOffTask, operation);
+            } finally {
+                queue.leave(ticket.get());
+            }
+        } finally {
+            endpointQueues.computeIfPresent(endpoint,
+                    (key, endpointQueue) -> endpointQueue.release() ? null : endpointQueue);
+        }
+    }
+
+    /**
+     * Execute operation, with no other task of the same endpoint executing at the same time (unless the endpoint
+     * uses a pipelined connection)
+     *
+     * @see #executeOperation(TaskWithEndpoint, boolean, ModbusOperation)
+     */
+    private <R extends ModbusRequestBlueprint, C extends ModbusCallback, T extends TaskWithEndpoint<R, C>> void executeOperationExclusively(
+            @NonNull T task, boolean oneOffTask, ModbusOperation<T> operation) {
         AggregateStopWatch timer = new AggregateStopWatch();
         timer.total.resume();
         String operationId = timer.operationId;
@@ -564,6 +788,8 @@ public class ModbusManagerImpl implements ModbusManager {
         }
 
         Optional<ModbusSlaveConnection> connection = Optional.empty();
+        boolean connected = false;
+        boolean aborted = false;
         try {
             logger.trace("Starting new operation with task {}. Trying to get connection [operation ID {}]", task,
                     operationId);
@@ -576,10 +802,12 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.trace("Initial connection was not successful, aborting. [operation ID {}]", operationId);
                 return;
             }
+            connected = true;
 
             if (scheduledThreadPoolExecutor == null) {
                 logger.debug("Manager has been shut down, aborting proecssing request {} [operation ID {}]", request,
                         operationId);
+                aborted = true;
                 return;
             }
 
@@ -602,6 +830,7 @@ public class ModbusManagerImpl implements ModbusManager {
                 }
                 if (Thread.interrupted()) {
                     logger.warn("Thread interrupted. Aborting operation [operation ID {}]", operationId);
+                    aborted = true;
                     return;
                 }
                 // Check poll task is still registered (this is all asynchronous)
@@ -723,8 +952,10 @@ public class ModbusManagerImpl implements ModbusManager {
         } catch (PollTaskUnregistered e) {
             logger.warn("Poll task was unregistered -- not executing/proceeding with the poll: {} [operation ID {}]",
                     e.getMessage(), operationId);
+            aborted = true;
             return;
         } catch (InterruptedException e) {
+            aborted = true;
             logger.warn("Poll task was canceled -- not executing/proceeding with the poll: {} [operation ID {}]",
                     e.getMessage(), operationId);
             // Invalidate connection, and empty (so that new connection is acquired before new retry)
@@ -735,9 +966,33 @@ public class ModbusManagerImpl implements ModbusManager {
             logger.trace("Connection was returned to the pool, ending operation [operation ID {}]", operationId);
             timer.suspendAllRunning();
             logger.debug("Modbus operation ended, timing info: {} [operation ID {}]", timer, operationId);
+            if (!aborted) {
+                @Nullable
+                Exception error = lastError.get();
+                if (error == null && !connected) {
+                    error = new ModbusConnectionException(endpoint);
+                }
+                getMetrics(endpoint).recordOperation(timer.connection.getTotalTimeMillis(),
+                        timer.transaction.getTotalTimeMillis(), timer.callback.getTotalTimeMillis(),
+                        timer.total.getTotalTimeMillis(), error);
+            }
         }
     }
 
+    private ModbusEndpointMetrics getMetrics(ModbusSlaveEndpoint endpoint) {
+        return endpointMetrics.computeIfAbsent(endpoint, e -> new ModbusEndpointMetrics());
+    }
+
+    @Override
+    public Map<ModbusSlaveEndpoint, ModbusEndpointMetrics> getEndpointMetrics() {
+        return Collections.unmodifiableMap(endpointMetrics);
+    }
+
+    @Override
+    public void resetMetrics() {
+        endpointMetrics.clear();
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimePoll(PollTask task) {
         ScheduledExecutorService executor = scheduledThreadPoolExecutor;
@@ -769,7 +1024,11 @@ public class ModbusManagerImpl implements ModbusManager {
                 logger.debug("Executing scheduled ({}ms) poll task {}. Current millis: {}", pollPeriodMillis, task,
                         started);
                 try {
-                    executeOperation(task, false, pollOperation);
+                    if (coalescePolls) {
+                        enqueueCoalescedPoll(task);
+                    } else {
+                        executeOperation(task, false, pollOperation);
+                    }
                 } catch (Exception e) {
                     // We want to catch all unexpected exceptions since all unhandled exceptions make
                     // ScheduledExecutorService halt the polling. It is better to print out the exception, and try again
@@ -814,6 +1073,7 @@ public class ModbusManagerImpl implements ModbusManager {
             factory.disconnectOnReturn(task.getEndpoint(), System.currentTimeMillis());
 
             future.cancel(true);
+            removeDuePollTask(task.getEndpoint(), task);
 
             logger.info("Poll task {} canceled", task);
 
@@ -832,6 +1092,84 @@ public class ModbusManagerImpl implements ModbusManager {
         }
     }
 
+    /**
+     * Mark regular poll as due. Due polls of the endpoint are executed by a flush in the poller thread pool,
+     * combining polls with adjacent or overlapping ranges to single transactions.
+     *
+     * Polls becoming due while a flush for the endpoint is in progress (e.g. waiting for the connection) are
+     * combined in the next round of the flush. A poll which is already due is not queued twice.
+     *
+     * @param task poll task that is due
+     */
+    private void enqueueCoalescedPoll(PollTask task) {
+        ScheduledExecutorService executor = scheduledThreadPoolExecutor;
+        if (executor == null) {
+            return;
+        }
+        ModbusSlaveEndpoint endpoint = task.getEndpoint();
+        duePollTasks.compute(endpoint, (key, due) -> {
+            Set<PollTask> tasks = due != null ? due : ConcurrentHashMap.<PollTask> newKeySet();
+            tasks.add(task);
+            return tasks;
+        });
+        if (flushingEndpoints.add(endpoint)) {
+            executor.execute(() -> flushCoalescedPolls(endpoint));
+        }
+    }
+
+    private void flushCoalescedPolls(ModbusSlaveEndpoint endpoint) {
+        do {
+            try {
+                Set<PollTask> due = duePollTasks.get(endpoint);
+                List<PollTask> tasks = new ArrayList<>();
+                if (due != null) {
+                    for (Iterator<PollTask> iterator = due.iterator(); iterator.hasNext();) {
+                        PollTask task = iterator.next();
+                        iterator.remove();
+                        if (scheduledPollTasks.containsKey(task)) {
+                            tasks.add(task);
+                        }
+                    }
+                    removeDuePollTask(endpoint, null);
+                }
+                List<PollTask> coalesced = CoalescedPollTask.coalesce(endpoint, tasks);
+                logger.debug("Executing {} due poll tasks of endpoint {} using {} transactions", tasks.size(), endpoint,
+                        coalesced.size());
+                for (PollTask task : coalesced) {
+                    if (scheduledThreadPoolExecutor == null) {
+                        // manager deactivated
+                        return;
+                    }
+                    executeOperation(task, task instanceof CoalescedPollTask, pollOperation);
+                }
+            } catch (Exception e) {
+                logger.warn("Execution of due poll tasks of endpoint {} failed unexpectedly.", endpoint, e);
+            } finally {
+                flushingEndpoints.remove(endpoint);
+            }
+            // Polls might have become due after draining but before the flag was cleared
+            Set<PollTask> due = duePollTasks.get(endpoint);
+            if (due == null || due.isEmpty() || !flushingEndpoints.add(endpoint)) {
+                return;
+            }
+        } while (true);
+    }
+
+    /**
+     * Removes the given task from the due polls of the endpoint, and the endpoint if none of its polls is due anymore.
+     *
+     * @param endpoint endpoint of the poll task
+     * @param task poll task which is not due anymore, or null to only remove the endpoint if nothing is due
+     */
+    private void removeDuePollTask(ModbusSlaveEndpoint endpoint, @Nullable PollTask task) {
+        duePollTasks.computeIfPresent(endpoint, (key, due) -> {
+            if (task != null) {
+                due.remove(task);
+            }
+            return due.isEmpty() ? null : due;
+        });
+    }
+
     @Override
     public ScheduledFuture<?> submitOneTimeWrite(WriteTask task) {
         ScheduledExecutorService scheduledThreadPoolExecutor = this.scheduledThreadPoolExecutor;
@@ -882,6 +1220,8 @@ public class ModbusManagerImpl implements ModbusManager {
     protected void activate(Map<String, Object> configProperties) {
         synchronized (this) {
             logger.info("Modbus manager activated");
+            Object coalesce = configProperties.get(CONFIG_COALESCE_POLLS);
+            coalescePolls = coalesce != null && Boolean.parseBoolean(coalesce.toString());
             if (connectionPool == null) {
                 constructConnectionPool();
             }
@@ -912,6 +1252,8 @@ public class ModbusManagerImpl implements ModbusManager {
                 connectionPool.close();
                 this.connectionPool = connectionPool = null;
             }
+            pipelinedConnections.values().forEach(PipelinedTCPConnection::resetConnection);
+            pipelinedConnections.clear();
 
             if (monitorFuture != null) {
                 monitorFuture.cancel(true);
@@ -921,6 +1263,7 @@ public class ModbusManagerImpl implements ModbusManager {
             // when pool is received from ThreadPoolManager is called
             scheduledThreadPoolExecutor = null;
             connectionFactory = null;
+            duePollTasks.clear();
             logger.debug("Modbus manager deactivated");
         }
     }
@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.internal.pooling;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.transport.modbus.endpoint.EndpointPoolConfiguration;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wimpi.modbus.ModbusException;
+import net.wimpi.modbus.ModbusIOException;
+import net.wimpi.modbus.ModbusSlaveException;
+import net.wimpi.modbus.io.ModbusTransport;
+import net.wimpi.modbus.msg.ExceptionResponse;
+import net.wimpi.modbus.msg.ModbusRequest;
+import net.wimpi.modbus.msg.ModbusResponse;
+import net.wimpi.modbus.net.ModbusSlaveConnection;
+import net.wimpi.modbus.net.TCPMasterConnection;
+
+/**
+ * Modbus TCP connection allowing several outstanding transactions at the same time
+ *
+ * Unlike the pooled connections, a single instance of this class is shared by all the tasks of the endpoint. Each
+ * request is given a unique transaction id and written to the socket as soon as there is room in the in-flight window.
+ * A dedicated reader thread receives the responses and hands them to the waiting requests based on the transaction id
+ * of the response. Responses with unknown transaction id (e.g. late responses to requests that have timed out already)
+ * are discarded.
+ *
+ * A request that times out or is interrupted only gives up its own transaction, the connection is kept open for the
+ * other transactions in flight. On socket errors while reading or writing, the connection is reset and all the
+ * outstanding requests fail with the error.
+ *
+ * The {@link EndpointPoolConfiguration} of the endpoint is respected as follows: connection establishment is tried
+ * up to connectMaxTries times, waiting interConnectDelayMillis between the attempts, and consecutive requests are
+ * written at least interTransactionDelayMillis apart. As the connection is shared by concurrent transactions,
+ * reconnectAfterMillis is not applied.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PipelinedTCPConnection implements ModbusSlaveConnection {
+
+    private static final int MAX_TRANSACTION_ID = 0xFFFF;
+
+    private final Logger logger = LoggerFactory.getLogger(PipelinedTCPConnection.class);
+
+    private final ModbusTCPSlaveEndpoint endpoint;
+    private final TCPMasterConnection connection;
+    private final EndpointPoolConfiguration configuration;
+    private final ThreadFactory threadFactory;
+    private final Semaphore window;
+    private final int maxInFlightTransactions;
+    private final int responseTimeoutMillis;
+    private final Map<Integer, CompletableFuture<ModbusResponse>> pending = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private int lastTransactionId;
+    private @Nullable Long lastConnectAttempt;
+    private @Nullable Long lastWrite;
+    private volatile @Nullable Thread reader;
+    private volatile long lastConnected;
+
+    /**
+     * Create new pipelined connection. The connection is not connected yet.
+     *
+     * @param endpoint endpoint of the connection
+     * @param connection underlying connection, exclusively used by this instance
+     * @param configuration configuration of the endpoint, defining also the maximum number of outstanding
+     *            transactions
+     * @param threadFactory factory for the thread reading the responses
+     */
+    public PipelinedTCPConnection(ModbusTCPSlaveEndpoint endpoint, TCPMasterConnection connection,
+            EndpointPoolConfiguration configuration, ThreadFactory threadFactory) {
+        if (configuration.getMaxInFlightTransactions() <= 0) {
+            throw new IllegalArgumentException("maxInFlightTransactions should be positive");
+        }
+        this.endpoint = endpoint;
+        this.connection = connection;
+        this.configuration = configuration;
+        this.threadFactory = threadFactory;
+        this.maxInFlightTransactions = configuration.getMaxInFlightTransactions();
+        this.window = new Semaphore(maxInFlightTransactions, true);
+        this.responseTimeoutMillis = connection.getTimeout();
+    }
+
+    @Override
+    public synchronized boolean connect() throws Exception {
+        if (isConnected()) {
+            return true;
+        }
+        int maxTries = Math.max(1, configuration.getConnectMaxTries());
+        for (int tryIndex = 1;; tryIndex++) {
+            ModbusSlaveConnectionFactoryImpl.waitAtleast(lastConnectAttempt, Math.max(
+                    configuration.getInterConnectDelayMillis(), configuration.getInterTransactionDelayMillis()));
+            lastConnectAttempt = System.currentTimeMillis();
+            try {
+                connection.connect();
+                break;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.debug("connect try {}/{} of pipelined connection to endpoint {} failed: {}", tryIndex,
+                        maxTries, endpoint, e.getMessage());
+                if (tryIndex >= maxTries) {
+                    throw e;
+                }
+            }
+        }
+        // The reader thread blocks on the socket while there is nothing outstanding. Response timeouts are
+        // handled per request instead.
+        connection.setTimeout(0);
+        lastConnected = System.currentTimeMillis();
+        Thread reader = threadFactory.newThread(this::readResponses);
+        this.reader = reader;
+        reader.start();
+        logger.debug("Pipelined connection to endpoint {} established, allowing {} transactions in flight", endpoint,
+                maxInFlightTransactions);
+        return true;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return reader != null && connection.isConnected();
+    }
+
+    @Override
+    public synchronized void resetConnection() {
+        Thread reader = this.reader;
+        this.reader = null;
+        connection.resetConnection();
+        if (reader != null) {
+            reader.interrupt();
+        }
+        failPending(new ModbusIOException("Connection reset"));
+    }
+
+    /**
+     * Reset the connection after a socket error, unless it has been re-established in the meantime
+     *
+     * @param failedReader reader of the connection on which the error occurred
+     */
+    private synchronized void resetConnection(@Nullable Thread failedReader) {
+        if (failedReader != null && reader == failedReader) {
+            resetConnection();
+        }
+    }
+
+    /**
+     * Get the endpoint configuration this connection was created with
+     *
+     * @return endpoint configuration
+     */
+    public EndpointPoolConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Time when the connection was last (re-)established
+     *
+     * @return time in milliseconds
+     */
+    public long getLastConnected() {
+        return lastConnected;
+    }
+
+    public int getMaxInFlightTransactions() {
+        return maxInFlightTransactions;
+    }
+
+    /**
+     * Get number of requests currently waiting for a response
+     *
+     * @return number of outstanding transactions
+     */
+    public int getInFlightTransactions() {
+        return pending.size();
+    }
+
+    /**
+     * Send the request and wait for the response with the same transaction id
+     *
+     * Blocks until there is room in the in-flight window. When the response is not received in time, only this
+     * transaction is abandoned. Socket errors reset the connection.
+     *
+     * @param request request to send. Transaction id of the request is overwritten.
+     * @return response to the request
+     * @throws ModbusIOException on I/O errors, or when response is not received in time
+     * @throws ModbusSlaveException when slave responds with exception response
+     * @throws InterruptedException when interrupted while waiting
+     */
+    public ModbusResponse execute(ModbusRequest request) throws ModbusException, InterruptedException {
+        window.acquire();
+        CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+        int transactionId = -1;
+        try {
+            transactionId = register(future);
+            request.setTransactionID(transactionId);
+            ModbusTransport transport = connection.getModbusTransport();
+            Thread currentReader = reader;
+            if (currentReader == null || transport == null) {
+                throw new ModbusIOException("Not connected");
+            }
+            synchronized (writeLock) {
+                ModbusSlaveConnectionFactoryImpl.waitAtleast(lastWrite,
+                        configuration.getInterTransactionDelayMillis());
+                try {
+                    transport.writeMessage(request);
+                } catch (ModbusIOException e) {
+                    logger.debug("Error writing request to endpoint {}, resetting the connection: {}", endpoint,
+                            e.getMessage());
+                    resetConnection(currentReader);
+                    throw e;
+                } finally {
+                    lastWrite = System.currentTimeMillis();
+                }
+            }
+            ModbusResponse response = responseTimeoutMillis > 0
+                    ? future.get(responseTimeoutMillis, TimeUnit.MILLISECONDS)
+                    : future.get();
+            if (response instanceof ExceptionResponse) {
+                throw new ModbusSlaveException(((ExceptionResponse) response).getExceptionCode());
+            }
+            return response;
+        } catch (TimeoutException e) {
+            throw new ModbusIOException(
+                    String.format("No response with transaction id %d in %d ms", transactionId, responseTimeoutMillis));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModbusException) {
+                throw (ModbusException) cause;
+            }
+            throw new ModbusIOException(String.valueOf(cause));
+        } finally {
+            if (transactionId >= 0) {
+                pending.remove(transactionId, future);
+            }
+            window.release();
+        }
+    }
+
+    private synchronized int register(CompletableFuture<ModbusResponse> future) {
+        // the window guarantees that there are free transaction ids
+        do {
+            lastTransactionId = lastTransactionId >= MAX_TRANSACTION_ID ? 1 : lastTransactionId + 1;
+        } while (pending.putIfAbsent(lastTransactionId, future) != null);
+        return lastTransactionId;
+    }
+
+    private void readResponses() {
+        Thread self = Thread.currentThread();
+        while (reader == self) {
+            ModbusTransport transport = connection.getModbusTransport();
+            if (transport == null) {
+                break;
+            }
+            try {
+                ModbusResponse response = transport.readResponse();
+                CompletableFuture<ModbusResponse> future = pending.remove(response.getTransactionID());
+                if (future == null) {
+                    logger.debug("Discarding response with unexpected transaction id {} from endpoint {}: {}",
+                            response.getTransactionID(), endpoint, response.getHexMessage());
+                } else {
+                    future.complete(response);
+                }
+            } catch (ModbusIOException e) {
+                if (reader == self) {
+                    logger.debug("Error reading responses from endpoint {}, resetting the connection: {}", endpoint,
+                            e.getMessage());
+                    failPending(e);
+                    resetConnection(self);
+                }
+                break;
+            }
+        }
+        logger.trace("Reader of pipelined connection to endpoint {} stopped", endpoint);
+    }
+
+    private void failPending(ModbusException error) {
+        for (Integer transactionId : pending.keySet()) {
+            CompletableFuture<ModbusResponse> future = pending.remove(transactionId);
+            if (future != null) {
+                future.completeExceptionally(error);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PipelinedTCPConnection(endpoint=" + endpoint + ", maxInFlightTransactions=" + maxInFlightTransactions
+                + ", inFlight=" + pending.size() + ")";
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusRegisterArray;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BitArray;
+import org.openhab.io.transport.modbus.ModbusReadCallback;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.CoalescedPollTask;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class CoalescedPollTaskTest {
+
+    private final ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    @NonNullByDefault
+    private static class RecordingCallback implements ModbusReadCallback {
+        private final List<ModbusRegisterArray> registers = new ArrayList<>();
+        private final List<ModbusReadRequestBlueprint> requests = new ArrayList<>();
+
+        @Override
+        public void onRegisters(ModbusReadRequestBlueprint request, ModbusRegisterArray registers) {
+            this.requests.add(request);
+            this.registers.add(registers);
+        }
+
+        @Override
+        public void onBits(ModbusReadRequestBlueprint request, BitArray bits) {
+        }
+
+        @Override
+        public void onError(ModbusReadRequestBlueprint request, Exception error) {
+        }
+    }
+
+    private PollTask task(int unitId, ModbusReadFunctionCode functionCode, int start, int length,
+            ModbusReadCallback callback) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(unitId, functionCode, start, length, 1), callback);
+    }
+
+    @Test
+    public void testAdjacentAndOverlappingTasksAreCombined() {
+        RecordingCallback callback1 = new RecordingCallback();
+        RecordingCallback callback2 = new RecordingCallback();
+        RecordingCallback callback3 = new RecordingCallback();
+        PollTask task1 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, callback1);
+        PollTask task2 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 2, callback2);
+        PollTask task3 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 2, callback3);
+
+        List<PollTask> coalesced = CoalescedPollTask.coalesce(endpoint, Arrays.asList(task3, task1, task2));
+
+        assertThat(coalesced.size(), is(equalTo(1)));
+        PollTask combined = coalesced.get(0);
+        assertThat(combined.getRequest().getReference(), is(equalTo(0)));
+        assertThat(combined.getRequest().getDataLength(), is(equalTo(5)));
+
+        combined.getCallback().onRegisters(combined.getRequest(), new BasicModbusRegisterArray(10, 11, 12, 13, 14));
+
+        assertThat(callback1.requests.get(0), is(equalTo(task1.getRequest())));
+        assertThat(callback1.registers.get(0).size(), is(equalTo(2)));
+        assertThat(callback1.registers.get(0).getUnsignedRegister(1), is(equalTo(11)));
+        assertThat(callback2.registers.get(0).getUnsignedRegister(0), is(equalTo(12)));
+        assertThat(callback3.registers.get(0).getRegister(0).getValue(), is(equalTo(13)));
+        assertThat(callback3.registers.get(0).getUnsignedRegister(1), is(equalTo(14)));
+    }
+
+    @Test
+    public void testIncompatibleTasksAreNotCombined() {
+        RecordingCallback callback = new RecordingCallback();
+        PollTask gap1 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 0, 2, callback);
+        PollTask gap2 = task(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 3, 2, callback);
+        PollTask otherUnit = task(2, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, 2, 1, callback);
+        PollTask otherFunction = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 2, 1, callback);
+
+        List<PollTask> coalesced = CoalescedPollTask.coalesce(endpoint,
+                Arrays.asList(gap1, gap2, otherUnit, otherFunction));
+
+        assertThat(coalesced.size(), is(equalTo(4)));
+        assertThat(coalesced.contains(gap1), is(true));
+        assertThat(coalesced.contains(gap2), is(true));
+        assertThat(coalesced.contains(otherUnit), is(true));
+        assertThat(coalesced.contains(otherFunction), is(true));
+    }
+
+    @Test
+    public void testMaximumRequestSizeIsRespected() {
+        RecordingCallback callback = new RecordingCallback();
+        PollTask task1 = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 0, 100, callback);
+        PollTask task2 = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 100, 25, callback);
+        PollTask task3 = task(1, ModbusReadFunctionCode.READ_INPUT_REGISTERS, 125, 1, callback);
+
+        List<PollTask> coalesced = CoalescedPollTask.coalesce(endpoint, Arrays.asList(task1, task2, task3));
+
+        assertThat(coalesced.size(), is(equalTo(2)));
+        assertThat(coalesced.get(0).getRequest().getDataLength(), is(equalTo(125)));
+        assertThat(coalesced.get(1), is(equalTo(task3)));
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.BasicModbusReadRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicModbusWriteCoilRequestBlueprint;
+import org.openhab.io.transport.modbus.BasicPollTaskImpl;
+import org.openhab.io.transport.modbus.BasicWriteTask;
+import org.openhab.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.io.transport.modbus.ModbusResponse;
+import org.openhab.io.transport.modbus.ModbusWriteCallback;
+import org.openhab.io.transport.modbus.ModbusWriteRequestBlueprint;
+import org.openhab.io.transport.modbus.PollTask;
+import org.openhab.io.transport.modbus.TaskWithEndpoint;
+import org.openhab.io.transport.modbus.WriteTask;
+import org.openhab.io.transport.modbus.endpoint.ModbusSlaveEndpoint;
+import org.openhab.io.transport.modbus.endpoint.ModbusTCPSlaveEndpoint;
+import org.openhab.io.transport.modbus.internal.EndpointTaskQueue;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class EndpointTaskQueueTest {
+
+    private final ModbusSlaveEndpoint endpoint = new ModbusTCPSlaveEndpoint("localhost", 502);
+
+    private final ModbusWriteCallback writeCallback = new ModbusWriteCallback() {
+
+        @Override
+        public void onWriteResponse(ModbusWriteRequestBlueprint request, ModbusResponse response) {
+        }
+
+        @Override
+        public void onError(ModbusWriteRequestBlueprint request, Exception error) {
+        }
+    };
+
+    private PollTask poll(int start) {
+        return new BasicPollTaskImpl(endpoint,
+                new BasicModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_COILS, start, 1, 1));
+    }
+
+    private WriteTask write() {
+        return new BasicWriteTask(endpoint, new BasicModbusWriteCoilRequestBlueprint(1, 0, true, false, 1),
+                writeCallback);
+    }
+
+    private Thread enterInBackground(EndpointTaskQueue queue, TaskWithEndpoint<?, ?> task,
+            List<TaskWithEndpoint<?, ?>> executionOrder) {
+        Thread thread = new Thread(() -> {
+            try {
+                Optional<EndpointTaskQueue.Ticket> ticket = queue.enter(task);
+                if (ticket.isPresent()) {
+                    executionOrder.add(task);
+                    queue.leave(ticket.get());
+                }
+            } catch (InterruptedException e) {
+                // test will fail on missing task
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void waitForQueueDepth(EndpointTaskQueue queue, int depth) throws InterruptedException {
+        for (int i = 0; i < 500 && queue.getQueueDepth() != depth; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.getQueueDepth(), is(equalTo(depth)));
+    }
+
+    @Test
+    public void testWritesArePrioritizedOverPolls() throws InterruptedException {
+        EndpointTaskQueue queue = new EndpointTaskQueue();
+        List<TaskWithEndpoint<?, ?>> executionOrder = new CopyOnWriteArrayList<>();
+
+        EndpointTaskQueue.Ticket active = queue.enter(poll(0)).get();
+
+        PollTask poll = poll(1);
+        Thread pollThread = enterInBackground(queue, poll, executionOrder);
+        waitForQueueDepth(queue, 1);
+        WriteTask write = write();
+        Thread writeThread = enterInBackground(queue, write, executionOrder);
+        waitForQueueDepth(queue, 2);
+
+        queue.leave(active);
+        pollThread.join(5000);
+        writeThread.join(5000);
+
+        assertThat(executionOrder.size(), is(equalTo(2)));
+        assertThat(executionOrder.get(0), is(sameInstance(write)));
+        assertThat(executionOrder.get(1), is(sameInstance(poll)));
+    }
+
+    @Test
+    public void testEqualPollIsSkippedWhileWaiting() throws InterruptedException {
+        EndpointTaskQueue queue = new EndpointTaskQueue();
+        List<TaskWithEndpoint<?, ?>> executionOrder = new CopyOnWriteArrayList<>();
+
+        EndpointTaskQueue.Ticket active = queue.enter(poll(0)).get();
+
+        Thread pollThread = enterInBackground(queue, poll(1), executionOrder);
+        waitForQueueDepth(queue, 1);
+
+        assertThat(queue.enter(poll(1)).isPresent(), is(false));
+        assertThat(queue.getQueueDepth(), is(equalTo(1)));
+
+        queue.leave(active);
+        pollThread.join(5000);
+        assertThat(executionOrder.size(), is(equalTo(1)));
+    }
+
+    @Test
+    public void testSeveralTasksActiveWithPipelining() throws InterruptedException {
+        EndpointTaskQueue queue = new EndpointTaskQueue();
+        queue.setMaxActive(2);
+        List<TaskWithEndpoint<?, ?>> executionOrder = new CopyOnWriteArrayList<>();
+
+        EndpointTaskQueue.Ticket first = queue.enter(poll(0)).get();
+        EndpointTaskQueue.Ticket second = queue.enter(poll(1)).get();
+        assertThat(queue.getQueueDepth(), is(equalTo(0)));
+
+        Thread pollThread = enterInBackground(queue, poll(2), executionOrder);
+        waitForQueueDepth(queue, 1);
+
+        queue.leave(first);
+        pollThread.join(5000);
+        assertThat(executionOrder.size(), is(equalTo(1)));
+        queue.leave(second);
+    }
+
+    @Test
+    public void testQueueIsReleasedByLastUser() {
+        EndpointTaskQueue queue = new EndpointTaskQueue();
+        queue.retain();
+        queue.retain();
+
+        assertThat(queue.release(), is(false));
+        assertThat(queue.release(), is(true));
+    }
+}
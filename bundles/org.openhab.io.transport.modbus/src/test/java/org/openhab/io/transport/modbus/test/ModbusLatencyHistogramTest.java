@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.transport.modbus.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import org.openhab.io.transport.modbus.ModbusEndpointMetrics;
+import org.openhab.io.transport.modbus.ModbusLatencyHistogram;
+import org.openhab.io.transport.modbus.ModbusSlaveIOException;
+import org.openhab.io.transport.modbus.internal.ModbusSlaveIOExceptionImpl;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class ModbusLatencyHistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        ModbusLatencyHistogram histogram = new ModbusLatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(3);
+        }
+        histogram.record(150);
+        histogram.record(20000);
+
+        assertThat(histogram.getCount(), is(equalTo(100L)));
+        assertThat(histogram.getMaxMillis(), is(equalTo(20000L)));
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(5L)));
+        assertThat(histogram.getPercentileMillis(99), is(equalTo(200L)));
+        assertThat(histogram.getPercentileMillis(100), is(equalTo(20000L)));
+        assertThat(histogram.getBucketCounts().length,
+                is(equalTo(ModbusLatencyHistogram.getBucketBoundsMillis().length + 1)));
+    }
+
+    @Test
+    public void testEmptyHistogram() {
+        ModbusLatencyHistogram histogram = new ModbusLatencyHistogram();
+        assertThat(histogram.getPercentileMillis(50), is(equalTo(0L)));
+        assertThat(histogram.getMeanMillis(), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void testErrorsAreCountedByType() {
+        ModbusEndpointMetrics metrics = new ModbusEndpointMetrics();
+        ModbusSlaveIOException error = new ModbusSlaveIOExceptionImpl(new IOException("broken pipe"));
+        metrics.recordOperation(1, 2, 3, 6, null);
+        metrics.recordOperation(1, 2, 0, 3, error);
+        metrics.recordOperation(1, 2, 0, 3, error);
+
+        assertThat(metrics.getSuccessCount(), is(equalTo(1L)));
+        assertThat(metrics.getErrorCounts().get(error.getClass().getSimpleName()), is(equalTo(2L)));
+        assertThat(metrics.getTotal().getCount(), is(equalTo(3L)));
+    }
+}
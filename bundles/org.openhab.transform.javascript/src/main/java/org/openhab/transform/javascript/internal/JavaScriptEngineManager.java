@@ -44,36 +44,43 @@ public class JavaScriptEngineManager {
 
     private final Logger logger = LoggerFactory.getLogger(JavaScriptEngineManager.class);
     private final ScriptEngineManager manager = new ScriptEngineManager();
-    /* keep memory foot print low. max 2 concurrent threads are estimated */
-    private final Map<String, CompiledScript> compiledScriptMap = new ConcurrentHashMap<>(4, 0.5f, 2);
+    private final Map<String, TimedScript> compiledScriptMap = new ConcurrentHashMap<>();
 
     /**
-     * Get a pre compiled script {@link CompiledScript} from cache. If it is not in the cache, then load it from
-     * storage and put a pre compiled version into the cache.
+     * Get a pre compiled script {@link TimedScript} from cache. If it is not in the cache, then load it from
+     * storage and put a pre compiled version into the cache. Cache hits do not lock, a script is compiled while
+     * holding the lock of its cache entry, so that a concurrent {@link #removeFromCache(String)} can't be overtaken by
+     * a stale compilation.
      *
      * @param filename name of the JavaScript file to load
-     * @return a pre compiled script {@link CompiledScript}
+     * @return a pre compiled script {@link TimedScript}
      * @throws TransformationException if compile of JavaScript failed
      */
-    protected CompiledScript getScript(final String filename) throws TransformationException {
-        synchronized (compiledScriptMap) {
-            if (compiledScriptMap.containsKey(filename)) {
-                logger.debug("Loading JavaScript {} from cache.", filename);
-                return compiledScriptMap.get(filename);
-            } else {
-                final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
-                logger.debug("Loading script {} from storage ", path);
-                try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
-                    final ScriptEngine engine = manager.getEngineByName("javascript");
-                    final CompiledScript cScript = ((Compilable) engine).compile(reader);
-                    logger.debug("Putting compiled JavaScript {} to cache.", cScript);
-                    compiledScriptMap.put(filename, cScript);
-                    return cScript;
-                } catch (IOException | ScriptException e) {
-                    throw new TransformationException("An error occurred while loading JavaScript. " + e.getMessage(),
-                            e);
-                }
-            }
+    protected TimedScript getScript(final String filename) throws TransformationException {
+        final TimedScript cached = compiledScriptMap.get(filename);
+        if (cached != null) {
+            logger.debug("Loading JavaScript {} from cache.", filename);
+            return cached;
+        }
+
+        try {
+            return compiledScriptMap.computeIfAbsent(filename, this::loadScript);
+        } catch (ScriptLoadException e) {
+            throw new TransformationException("An error occurred while loading JavaScript. " + e.getCause().getMessage(),
+                    e.getCause());
+        }
+    }
+
+    private TimedScript loadScript(final String filename) {
+        final String path = TransformationScriptWatcher.TRANSFORM_FOLDER + File.separator + filename;
+        logger.debug("Loading script {} from storage ", path);
+        try (final Reader reader = new InputStreamReader(new FileInputStream(path))) {
+            final ScriptEngine engine = manager.getEngineByName("javascript");
+            final CompiledScript cScript = ((Compilable) engine).compile(reader);
+            logger.debug("Putting compiled JavaScript {} to cache.", cScript);
+            return new TimedScript(cScript);
+        } catch (IOException | ScriptException e) {
+            throw new ScriptLoadException(e);
         }
     }
 
@@ -84,6 +91,21 @@ public class JavaScriptEngineManager {
      */
     protected void removeFromCache(String fileName) {
         logger.debug("Removing JavaScript {} from cache.", fileName);
-        compiledScriptMap.remove(fileName);
+        final TimedScript script = compiledScriptMap.remove(fileName);
+        if (script != null && script.getExecutionCount() > 0) {
+            logger.debug("JavaScript {} was executed {} times, {} ms in total, {} ms at most.", fileName,
+                    script.getExecutionCount(), script.getTotalExecutionNanos() / 1000000,
+                    script.getMaxExecutionNanos() / 1000000);
+        }
+    }
+
+    /**
+     * Passes the checked exceptions of loading a script out of {@link Map#computeIfAbsent}.
+     */
+    @SuppressWarnings("serial")
+    private static class ScriptLoadException extends RuntimeException {
+        ScriptLoadException(Exception cause) {
+            super(cause);
+        }
     }
 }
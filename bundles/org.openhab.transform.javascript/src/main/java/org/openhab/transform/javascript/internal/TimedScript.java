@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.javascript.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A pre compiled script, which is evaluated with new {@link Bindings} for every call, so that neither concurrent
+ * transformations nor subsequent ones on the same thread see the globals of another evaluation. Also keeps simple
+ * execution statistics of the script.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TimedScript {
+
+    private final CompiledScript compiledScript;
+
+    private final AtomicLong executionCount = new AtomicLong();
+    private final AtomicLong totalExecutionNanos = new AtomicLong();
+    private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+    TimedScript(CompiledScript compiledScript) {
+        this.compiledScript = compiledScript;
+    }
+
+    /**
+     * Evaluates the script with the given value bound to the 'input' variable.
+     *
+     * @param input the value to pass to the script
+     * @return the value returned by the script
+     * @throws ScriptException if the script failed
+     */
+    public @Nullable Object eval(String input) throws ScriptException {
+        Bindings bindings = compiledScript.getEngine().createBindings();
+        bindings.put("input", input);
+
+        final long startTime = System.nanoTime();
+        try {
+            return compiledScript.eval(bindings);
+        } finally {
+            final long elapsed = System.nanoTime() - startTime;
+            executionCount.incrementAndGet();
+            totalExecutionNanos.addAndGet(elapsed);
+            maxExecutionNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public long getExecutionCount() {
+        return executionCount.get();
+    }
+
+    public long getTotalExecutionNanos() {
+        return totalExecutionNanos.get();
+    }
+
+    public long getMaxExecutionNanos() {
+        return maxExecutionNanos.get();
+    }
+}
@@ -58,6 +58,14 @@ public class JSonPathTransformationServiceTest {
         assertEquals("2", transformedResponse);
     }
 
+    @Test
+    public void testSeveralPathsOnSamePayload() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("2", processor.transform("$[1].id", new String(jsonArray)));
+    }
+
     @Test(expected = TransformationException.class)
     public void testInvalidPathThrowsException() throws TransformationException {
         processor.transform("$$", jsonArray);
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class RegExPatternCacheTest {
+
+    @Test
+    public void testCacheHit() {
+        RegExPatternCache cache = new RegExPatternCache(2);
+
+        Pattern first = cache.getPattern("a(.*)", Pattern.DOTALL);
+        Pattern second = cache.getPattern("a(.*)", Pattern.DOTALL);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testFlagsArePartOfKey() {
+        RegExPatternCache cache = new RegExPatternCache(2);
+
+        Pattern dotAll = cache.getPattern("a(.*)", Pattern.DOTALL);
+        Pattern plain = cache.getPattern("a(.*)", 0);
+
+        assertNotSame(dotAll, plain);
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        RegExPatternCache cache = new RegExPatternCache(2);
+
+        Pattern a = cache.getPattern("a", 0);
+        cache.getPattern("b", 0);
+        cache.getPattern("a", 0);
+        cache.getPattern("c", 0);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertSame(a, cache.getPattern("a", 0));
+        cache.getPattern("b", 0);
+        assertEquals(4, cache.getMissCount());
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.scale.internal;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compiled form of a scale file.
+ *
+ * The ranges of the file are flattened into a sorted set of non-overlapping intervals: every distinct range limit
+ * becomes a point and the number line is split into these points and the open gaps between them. Each point and each
+ * gap is labelled with the first range (in file order) that contains it, so that a lookup is a binary search over the
+ * limits while keeping the "first match wins" semantics of the scale file.
+ *
+ * @author agent - Initial contribution
+ */
+public class ScaleTable {
+
+    private static final String FORMAT_VALUE = "%value%";
+    private static final String FORMAT_LABEL = "%label%";
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    /** sorted, distinct range limits */
+    private final BigDecimal[] points;
+    /** label of the value equal to {@code points[i]} */
+    private final String[] pointLabels;
+    /** label of the open interval between {@code points[i - 1]} and {@code points[i]} */
+    private final String[] gapLabels;
+
+    /** literal parts of the format, placeholders are located between two consecutive literals */
+    private final String[] formatLiterals;
+    /** {@code true} if the placeholder after {@code formatLiterals[i]} is the value, {@code false} for the label */
+    private final boolean[] formatValuePlaceholders;
+
+    private final String nonNumeric;
+
+    /**
+     * Compiles the ranges of a scale file.
+     *
+     * @param ranges the ranges with their label, in the order of the scale file
+     * @param format the presentation format, may contain the %value% and %label% placeholders
+     * @param nonNumeric the label for non numeric inputs or <code>null</code> if there is none
+     */
+    public ScaleTable(Map<Range, String> ranges, String format, String nonNumeric) {
+        final TreeSet<BigDecimal> limits = new TreeSet<>();
+        for (Range range : ranges.keySet()) {
+            if (range.min != null) {
+                limits.add(range.min);
+            }
+            if (range.max != null) {
+                limits.add(range.max);
+            }
+        }
+        this.points = limits.toArray(new BigDecimal[limits.size()]);
+        this.pointLabels = new String[points.length];
+        this.gapLabels = new String[points.length + 1];
+
+        for (int i = 0; i < points.length; i++) {
+            pointLabels[i] = findFirst(ranges, points[i]);
+        }
+        for (int i = 0; i <= points.length; i++) {
+            gapLabels[i] = findFirst(ranges, gapRepresentative(i));
+        }
+
+        final List<String> literals = new ArrayList<>();
+        final List<Boolean> placeholders = new ArrayList<>();
+        int start = 0;
+        while (true) {
+            int valueIndex = format.indexOf(FORMAT_VALUE, start);
+            int labelIndex = format.indexOf(FORMAT_LABEL, start);
+            if (valueIndex < 0 && labelIndex < 0) {
+                literals.add(format.substring(start));
+                break;
+            }
+            boolean isValue = labelIndex < 0 || (valueIndex >= 0 && valueIndex < labelIndex);
+            int index = isValue ? valueIndex : labelIndex;
+            literals.add(format.substring(start, index));
+            placeholders.add(isValue);
+            start = index + (isValue ? FORMAT_VALUE.length() : FORMAT_LABEL.length());
+        }
+        this.formatLiterals = literals.toArray(new String[literals.size()]);
+        this.formatValuePlaceholders = new boolean[placeholders.size()];
+        for (int i = 0; i < formatValuePlaceholders.length; i++) {
+            formatValuePlaceholders[i] = placeholders.get(i);
+        }
+
+        this.nonNumeric = nonNumeric;
+    }
+
+    /**
+     * Returns the label of the first range containing the given value.
+     *
+     * @param value the value to look up
+     * @return the label or <code>null</code> if no range contains the value
+     */
+    public String lookup(final BigDecimal value) {
+        int index = binarySearch(value);
+        return index >= 0 ? pointLabels[index] : gapLabels[-index - 1];
+    }
+
+    /**
+     * Renders the presentation format for the given source and label.
+     */
+    public String format(final String source, final String label) {
+        final StringBuilder builder = new StringBuilder(formatLiterals[0]);
+        for (int i = 0; i < formatValuePlaceholders.length; i++) {
+            builder.append(formatValuePlaceholders[i] ? source : label).append(formatLiterals[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    public String getNonNumeric() {
+        return nonNumeric;
+    }
+
+    private int binarySearch(final BigDecimal value) {
+        int low = 0;
+        int high = points.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = points[mid].compareTo(value);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Returns a value lying strictly inside the gap before {@code points[index]}.
+     */
+    private BigDecimal gapRepresentative(int index) {
+        if (points.length == 0) {
+            return BigDecimal.ZERO;
+        } else if (index == 0) {
+            return points[0].subtract(BigDecimal.ONE);
+        } else if (index == points.length) {
+            return points[points.length - 1].add(BigDecimal.ONE);
+        } else {
+            return points[index - 1].add(points[index]).divide(TWO);
+        }
+    }
+
+    private static String findFirst(Map<Range, String> ranges, BigDecimal value) {
+        for (Map.Entry<Range, String> entry : ranges.entrySet()) {
+            if (entry.getKey().contains(value)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
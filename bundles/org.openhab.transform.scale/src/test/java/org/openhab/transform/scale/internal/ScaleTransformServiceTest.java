@@ -120,6 +120,18 @@ public class ScaleTransformServiceTest {
         Assert.assertEquals("first", transformedResponse);
     }
 
+    @Test
+    public void testEvaluationOrderAtLimits() throws TransformationException {
+        // Ensures that range limits are honoured when ranges overlap
+        String evaluationOrder = "scale/evaluationorder.scale";
+
+        Assert.assertEquals("first", processor.transform(evaluationOrder, "10"));
+        Assert.assertEquals("second", processor.transform(evaluationOrder, "15"));
+        Assert.assertEquals("second", processor.transform(evaluationOrder, "16.5"));
+        Assert.assertEquals("last", processor.transform(evaluationOrder, "17"));
+        Assert.assertEquals("first", processor.transform(evaluationOrder, "-1000"));
+    }
+
     @Test
     public void testTransformQuantityType() throws TransformationException {
         QuantityType<Dimensionless> airQuality = new QuantityType<>("992 ppm");
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.xslt.internal;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.smarthome.core.transform.TransformationException;
+import org.osgi.service.component.annotations.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for compiled XSLT stylesheets. A stylesheet is parsed and compiled into {@link Templates} once and each
+ * thread gets its own {@link Transformer} instance, since transformers are not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = XsltTemplatesManager.class)
+public class XsltTemplatesManager {
+
+    private final Logger logger = LoggerFactory.getLogger(XsltTemplatesManager.class);
+    private final Map<String, CompiledStylesheet> stylesheetMap = new ConcurrentHashMap<>();
+
+    /**
+     * Get a {@link Transformer} for the given stylesheet which may be used by the calling thread only. If the
+     * stylesheet is not in the cache, then load it from storage and put a compiled version into the cache.
+     *
+     * @param filename name of the XSLT file relative to the transform folder
+     * @return a transformer bound to the calling thread
+     * @throws TransformationException if the stylesheet could not be compiled
+     */
+    protected Transformer getTransformer(final String filename) throws TransformationException {
+        CompiledStylesheet stylesheet = stylesheetMap.get(filename);
+        if (stylesheet == null) {
+            stylesheet = compile(filename);
+            CompiledStylesheet existing = stylesheetMap.putIfAbsent(filename, stylesheet);
+            if (existing != null) {
+                stylesheet = existing;
+            }
+        } else {
+            logger.debug("Loading XSLT {} from cache.", filename);
+        }
+        return stylesheet.getTransformer();
+    }
+
+    /**
+     * Remove all compiled stylesheets from the cache which were loaded from the given file.
+     *
+     * @param path the path of the file that was changed or deleted
+     */
+    protected void removeFromCache(Path path) {
+        final Path changed = path.toAbsolutePath().normalize();
+        stylesheetMap.keySet().removeIf(filename -> {
+            if (getFile(filename).toPath().toAbsolutePath().normalize().equals(changed)) {
+                logger.debug("Removing XSLT {} from cache.", filename);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private CompiledStylesheet compile(final String filename) throws TransformationException {
+        final File file = getFile(filename);
+        logger.debug("Loading XSLT {} from storage", file);
+        try {
+            return new CompiledStylesheet(TransformerFactory.newInstance().newTemplates(new StreamSource(file)));
+        } catch (TransformerConfigurationException e) {
+            String message = "compiling file '" + filename + "' throws exception";
+            logger.error("{}", message, e);
+            throw new TransformationException(message, e);
+        }
+    }
+
+    private File getFile(String filename) {
+        return new File(TransformationStylesheetWatcher.TRANSFORM_FOLDER + File.separator + filename);
+    }
+
+    /**
+     * A compiled stylesheet together with the {@link Transformer} instances created for it per thread.
+     */
+    private static class CompiledStylesheet {
+        private final Templates templates;
+        private final ThreadLocal<@Nullable Transformer> transformer = new ThreadLocal<>();
+
+        CompiledStylesheet(Templates templates) {
+            this.templates = templates;
+        }
+
+        Transformer getTransformer() throws TransformationException {
+            Transformer result = transformer.get();
+            if (result == null) {
+                try {
+                    result = templates.newTransformer();
+                } catch (TransformerConfigurationException e) {
+                    throw new TransformationException("creating transformer throws exception", e);
+                }
+                transformer.set(result);
+            } else {
+                result.reset();
+            }
+            return result;
+        }
+    }
+}
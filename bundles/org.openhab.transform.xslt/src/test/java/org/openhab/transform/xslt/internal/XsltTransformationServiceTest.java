@@ -28,6 +28,7 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
     @Before
     public void init() {
         processor = new XsltTransformationService();
+        processor.setXsltTemplatesManager(new XsltTemplatesManager());
     }
 
     @Test
@@ -39,4 +40,15 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByCachedXSLT() throws TransformationException {
+        processor.transform("http/google_weather.xsl", source);
+
+        // method under test
+        String transformedResponse = processor.transform("http/google_weather.xsl", source);
+
+        // Asserts
+        assertEquals("8", transformedResponse);
+    }
+
 }